@@ -54,7 +54,7 @@ class ConfigurationCacheBuildOperationsIntegrationTest extends AbstractConfigura
             size() == 1
             with(get(0)) {
                 details == [:]
-                it.result == [:]
+                it.result.cacheEntrySize > 0
             }
         }
 
@@ -67,7 +67,7 @@ class ConfigurationCacheBuildOperationsIntegrationTest extends AbstractConfigura
             size() == 1
             with(get(0)) {
                 details == [:]
-                it.result == [:]
+                it.result.cacheEntrySize > 0
             }
         }
         operations.all(ConfigurationCacheStoreBuildOperationType).empty
@@ -96,7 +96,7 @@ class ConfigurationCacheBuildOperationsIntegrationTest extends AbstractConfigura
             size() == 1
             with(get(0)) {
                 details == [:]
-                it.result == [:]
+                it.result.cacheEntrySize > 0
             }
         }
 
@@ -108,7 +108,7 @@ class ConfigurationCacheBuildOperationsIntegrationTest extends AbstractConfigura
             size() == 1
             with(get(0)) {
                 details == [:]
-                it.result == [:]
+                it.result.cacheEntrySize > 0
             }
         }
         operations.all(ConfigurationCacheStoreBuildOperationType).empty
@@ -25,13 +25,13 @@ import org.gradle.internal.operations.CallableBuildOperation
 
 
 internal
-fun <T : Any> BuildOperationExecutor.withLoadOperation(block: () -> T) =
-    withOperation("Load configuration cache state", block, LoadDetails, LoadResult)
+fun <T : Any> BuildOperationExecutor.withLoadOperation(cacheEntrySize: () -> Long, block: () -> T) =
+    withOperation("Load configuration cache state", block, LoadDetails) { LoadResult(cacheEntrySize()) }
 
 
 internal
-fun BuildOperationExecutor.withStoreOperation(cacheKey: String, block: () -> Unit) =
-    withOperation("Store configuration cache state $cacheKey", block, StoreDetails, StoreResult)
+fun BuildOperationExecutor.withStoreOperation(cacheKey: String, cacheEntrySize: () -> Long, block: () -> Unit) =
+    withOperation("Store configuration cache state $cacheKey", block, StoreDetails) { StoreResult(cacheEntrySize()) }
 
 
 private
@@ -39,7 +39,9 @@ object LoadDetails : ConfigurationCacheLoadBuildOperationType.Details
 
 
 private
-object LoadResult : ConfigurationCacheLoadBuildOperationType.Result
+class LoadResult(private val cacheEntrySize: Long) : ConfigurationCacheLoadBuildOperationType.Result {
+    override fun getCacheEntrySize(): Long = cacheEntrySize
+}
 
 
 private
@@ -47,15 +49,17 @@ object StoreDetails : ConfigurationCacheStoreBuildOperationType.Details
 
 
 private
-object StoreResult : ConfigurationCacheStoreBuildOperationType.Result
+class StoreResult(private val cacheEntrySize: Long) : ConfigurationCacheStoreBuildOperationType.Result {
+    override fun getCacheEntrySize(): Long = cacheEntrySize
+}
 
 
 private
-fun <T : Any, D : Any, R : Any> BuildOperationExecutor.withOperation(displayName: String, block: () -> T, details: D, result: R): T =
+fun <T : Any, D : Any, R : Any> BuildOperationExecutor.withOperation(displayName: String, block: () -> T, details: D, result: () -> R): T =
     call(object : CallableBuildOperation<T> {
         override fun description(): BuildOperationDescriptor.Builder =
             BuildOperationDescriptor.displayName(displayName).details(details)
 
         override fun call(context: BuildOperationContext): T =
-            block().also { context.setResult(result) }
+            block().also { context.setResult(result()) }
     })
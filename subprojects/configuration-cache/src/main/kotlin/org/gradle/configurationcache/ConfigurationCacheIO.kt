@@ -52,6 +52,18 @@ import org.gradle.util.Path
 import java.io.File
 import java.io.InputStream
 import java.io.OutputStream
+import java.util.zip.Deflater
+import java.util.zip.DeflaterOutputStream
+import java.util.zip.Inflater
+import java.util.zip.InflaterInputStream
+
+
+/**
+ * State files for large builds are several megabytes in size. Use a larger buffer than the
+ * default for the encoder and decoder so that they are streamed in fewer, larger reads and writes.
+ */
+private
+const val stateBufferSize = 64 * 1024
 
 
 @ServiceScope(Scopes.Gradle::class)
@@ -206,7 +218,7 @@ class ConfigurationCacheIO internal constructor(
 
     internal
     fun writerContextFor(outputStream: OutputStream, profile: String): Pair<DefaultWriteContext, Codecs> =
-        KryoBackedEncoder(outputStream).let { encoder ->
+        KryoBackedEncoder(compressing(outputStream), stateBufferSize).let { encoder ->
             writeContextFor(
                 encoder,
                 loggingTracerFor(profile, encoder),
@@ -256,7 +268,39 @@ class ConfigurationCacheIO internal constructor(
     private
     fun readerContextFor(
         inputStream: InputStream,
-    ) = readerContextFor(KryoBackedDecoder(inputStream))
+    ) = readerContextFor(KryoBackedDecoder(decompressing(inputStream), stateBufferSize))
+
+    /**
+     * State files are compressed using the fastest deflate level, trading some compression ratio
+     * for throughput, as the state is written on every cache miss and read on every cache hit.
+     */
+    private
+    fun compressing(outputStream: OutputStream): OutputStream {
+        val deflater = Deflater(Deflater.BEST_SPEED)
+        return object : DeflaterOutputStream(outputStream, deflater, stateBufferSize) {
+            override fun close() {
+                try {
+                    super.close()
+                } finally {
+                    deflater.end()
+                }
+            }
+        }
+    }
+
+    private
+    fun decompressing(inputStream: InputStream): InputStream {
+        val inflater = Inflater()
+        return object : InflaterInputStream(inputStream, inflater, stateBufferSize) {
+            override fun close() {
+                try {
+                    super.close()
+                } finally {
+                    inflater.end()
+                }
+            }
+        }
+    }
 
     internal
     fun readerContextFor(
@@ -152,6 +152,14 @@ class ConfigurationCacheRepository(
             return Files.createTempFile(baseDir.toPath(), stateType.fileBaseName, ".tmp").toFile()
         }
 
+        override fun stateSize(stateType: StateType): Long {
+            val stateFile = baseDir.stateFile(stateType)
+            val includedBuildStateFilePrefix = "${stateFile.name}."
+            return baseDir.listFiles().orEmpty()
+                .filter { it.name == stateFile.name || it.name.startsWith(includedBuildStateFilePrefix) }
+                .sumOf { it.length() }
+        }
+
         override fun <T> createValueStore(stateType: StateType, writer: ValueStore.Writer<T>, reader: ValueStore.Reader<T>): ValueStore<T> {
             return DefaultValueStore(baseDir, stateType.fileBaseName, writer, reader)
         }
@@ -39,6 +39,11 @@ interface ConfigurationCacheStateStore {
      */
     fun useForStore(action: (ConfigurationCacheRepository.Layout) -> Unit)
 
+    /**
+     * Returns the size in bytes of the state files of the given type, including those of included builds.
+     */
+    fun stateSize(stateType: StateType): Long
+
     /**
      * Creates a new [ValueStore] that can be used to load and store multiple values.
      */
@@ -48,6 +48,9 @@ class DefaultBuildTreeModelControllerServices : BuildTreeModelControllerServices
 
         private
         val invalidateCoupledProjects = InternalFlag("org.gradle.internal.invalidate-coupled-projects", true)
+
+        private
+        val parallelProjectConfiguration = InternalFlag("org.gradle.internal.isolated-projects.parallel-configuration", false)
     }
 
     override fun servicesForBuildTree(requirements: BuildActionModelRequirements): BuildTreeModelControllerServices.Supplier {
@@ -64,13 +67,15 @@ class DefaultBuildTreeModelControllerServices : BuildTreeModelControllerServices
         val isolatedProjects = startParameter.isolatedProjects.get()
         val parallelToolingActions = (isolatedProjects || requirements.startParameter.isParallelProjectExecutionEnabled) && options.getOption(parallelBuilding).get()
         val invalidateCoupledProjects = isolatedProjects && options.getOption(invalidateCoupledProjects).get()
+        // Projects can only be configured in parallel when isolated projects reports any access to the state of other projects
+        val parallelProjectConfiguration = isolatedProjects && options.getOption(parallelProjectConfiguration).get()
         val modelParameters = if (requirements.isCreatesModel) {
             // When creating a model, disable certain features - only enable configure on demand and configuration cache when isolated projects is enabled
-            BuildModelParameters(isolatedProjects, isolatedProjects, isolatedProjects, true, isolatedProjects, parallelToolingActions, invalidateCoupledProjects)
+            BuildModelParameters(isolatedProjects, isolatedProjects, isolatedProjects, true, isolatedProjects, parallelProjectConfiguration, parallelToolingActions, invalidateCoupledProjects)
         } else {
             val configurationCache = startParameter.configurationCache.get() || isolatedProjects
             val configureOnDemand = startParameter.isConfigureOnDemand || isolatedProjects
-            BuildModelParameters(configureOnDemand, configurationCache, isolatedProjects, false, false, parallelToolingActions, invalidateCoupledProjects)
+            BuildModelParameters(configureOnDemand, configurationCache, isolatedProjects, false, false, parallelProjectConfiguration, parallelToolingActions, invalidateCoupledProjects)
         }
 
         if (!startParameter.isConfigurationCacheQuiet) {
@@ -95,7 +100,7 @@ class DefaultBuildTreeModelControllerServices : BuildTreeModelControllerServices
         return BuildTreeModelControllerServices.Supplier { registration ->
             registration.add(BuildType::class.java, BuildType.TASKS)
             // Configuration cache is not supported for nested build trees
-            val buildModelParameters = BuildModelParameters(startParameter.isConfigureOnDemand, false, false, true, false, false, false)
+            val buildModelParameters = BuildModelParameters(startParameter.isConfigureOnDemand, false, false, true, false, false, false, false)
             val requirements = RunTasksRequirements(startParameter)
             registerServices(registration, buildModelParameters, requirements)
         }
@@ -43,6 +43,7 @@ import org.gradle.internal.component.local.model.LocalComponentGraphResolveState
 import org.gradle.internal.concurrent.CompositeStoppable
 import org.gradle.internal.concurrent.Stoppable
 import org.gradle.internal.operations.BuildOperationExecutor
+import org.gradle.internal.time.Time
 import org.gradle.internal.vfs.FileSystemAccess
 import org.gradle.internal.watch.vfs.BuildLifecycleAwareVirtualFileSystem
 import org.gradle.util.Path
@@ -275,7 +276,10 @@ class DefaultConfigurationCache internal constructor(
                 // No entry file -> treat the entry as empty/missing/invalid
                 CheckedFingerprint.NotFound
             } else {
-                checkFingerprint(entryDetails, layout)
+                val timer = Time.startTimer()
+                checkFingerprint(entryDetails, layout).also {
+                    logger.info("Checked configuration cache fingerprint in {}.", timer.elapsed)
+                }
             }
         }
     }
@@ -324,7 +328,7 @@ class DefaultConfigurationCache internal constructor(
         // can cause the provider value to incorrectly be treated as a task graph input
         Instrumented.discardListener()
 
-        buildOperationExecutor.withStoreOperation(cacheKey.string) {
+        buildOperationExecutor.withStoreOperation(cacheKey.string, { store.stateSize(stateType) }) {
             store.useForStore { layout ->
                 try {
                     action(layout.fileFor(stateType))
@@ -364,7 +368,7 @@ class DefaultConfigurationCache internal constructor(
         // when loading the task graph.
         scopeRegistryListener.dispose()
 
-        val result = buildOperationExecutor.withLoadOperation {
+        val result = buildOperationExecutor.withLoadOperation({ store.stateSize(stateType) }) {
             store.useForStateLoad(stateType, action)
         }
         crossConfigurationTimeBarrier()
@@ -48,49 +48,41 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
         fun gradleProperty(propertyName: String): String?
         fun fingerprintOf(fileCollection: FileCollectionInternal): HashCode
         fun hashCodeOf(file: File): HashCode?
+
+        /**
+         * Hashes the given files ahead of time, possibly concurrently, so that later calls to [hashCodeOf] for them are cheap.
+         */
+        fun prepareHashCodesOf(files: List<File>)
         fun displayNameOf(fileOrDirectory: File): String
         fun instantiateValueSourceOf(obtainedValue: ObtainedValue): ValueSource<Any, ValueSourceParameters>
     }
 
     suspend fun ReadContext.checkBuildScopedFingerprint(): CheckedFingerprint {
         // TODO: log some debug info
-        while (true) {
-            when (val input = read()) {
-                null -> break
-                is ConfigurationCacheFingerprint -> {
-                    // An input that is not specific to a project. If it is out-of-date, then invalidate the whole cache entry and skip any further checks
-                    val reason = check(input)
-                    if (reason != null) {
-                        return CheckedFingerprint.EntryInvalid(reason)
-                    }
-                }
-                else -> throw IllegalStateException("Unexpected configuration cache fingerprint: $input")
-            }
+        val inputs = readBuildScopedInputs()
+        // Check the inputs that are cheap to check first, so that no input files are hashed when one of them is out-of-date
+        val (cheapInputs, otherInputs) = inputs.partition { isCheapToCheck(it) }
+        // An input that is not specific to a project. If it is out-of-date, then invalidate the whole cache entry and skip any further checks
+        val reason = firstOutOfDate(cheapInputs) ?: run {
+            prepareHashCodesOfInputFiles(otherInputs)
+            firstOutOfDate(otherInputs)
+        }
+        return if (reason == null) {
+            CheckedFingerprint.Valid
+        } else {
+            CheckedFingerprint.EntryInvalid(reason)
         }
-        return CheckedFingerprint.Valid
     }
 
     suspend fun ReadContext.checkProjectScopedFingerprint(): CheckedFingerprint {
         // TODO: log some debug info
+        val inputs = readProjectScopedInputs()
         var firstReason: InvalidationReason? = null
         val projects = mutableMapOf<Path, ProjectInvalidationState>()
-        while (true) {
-            when (val input = read()) {
-                null -> break
-                is ProjectSpecificFingerprint.ProjectFingerprint -> input.run {
-                    // An input that is specific to a project. If it is out-of-date, then invalidate that project's values and continue checking values
-                    // Don't check a value for a project that is already out-of-date
-                    val state = projects.entryFor(input.projectPath)
-                    if (!state.isInvalid) {
-                        val reason = check(input.value)
-                        if (reason != null) {
-                            if (firstReason == null) {
-                                firstReason = reason
-                            }
-                            state.invalidate()
-                        }
-                    }
-                }
+        // Link the projects first, so that a project which is invalidated also invalidates the projects that consume it
+        // before their inputs are checked, regardless of the order in which the inputs were recorded
+        for (input in inputs) {
+            when (input) {
                 is ProjectSpecificFingerprint.ProjectDependency -> {
                     val consumer = projects.entryFor(input.consumingProject)
                     val target = projects.entryFor(input.targetProject)
@@ -104,9 +96,29 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
                         referrer.consumedBy(target)
                     }
                 }
-                else -> throw IllegalStateException("Unexpected configuration cache fingerprint: $input")
             }
         }
+        fun checkInputs(projectInputs: List<ProjectSpecificFingerprint.ProjectFingerprint>) {
+            for (input in projectInputs) {
+                // An input that is specific to a project. If it is out-of-date, then invalidate that project's values and continue checking values
+                // Don't check a value for a project that is already out-of-date
+                val state = projects.entryFor(input.projectPath)
+                if (!state.isInvalid) {
+                    val reason = check(input.value)
+                    if (reason != null) {
+                        if (firstReason == null) {
+                            firstReason = reason
+                        }
+                        state.invalidate()
+                    }
+                }
+            }
+        }
+        // Check the inputs that are cheap to check first, and only hash the input files of the projects that are still valid afterwards
+        val (cheapInputs, otherInputs) = inputs.filterIsInstance<ProjectSpecificFingerprint.ProjectFingerprint>().partition { isCheapToCheck(it.value) }
+        checkInputs(cheapInputs)
+        prepareHashCodesOfInputFiles(otherInputs.filter { !projects.entryFor(it.projectPath).isInvalid }.map { it.value })
+        checkInputs(otherInputs)
         return if (firstReason == null) {
             CheckedFingerprint.Valid
         } else {
@@ -114,6 +126,79 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
         }
     }
 
+    private
+    suspend fun ReadContext.readBuildScopedInputs(): List<ConfigurationCacheFingerprint> {
+        val inputs = mutableListOf<ConfigurationCacheFingerprint>()
+        while (true) {
+            when (val input = read()) {
+                null -> break
+                is ConfigurationCacheFingerprint -> inputs.add(input)
+                else -> throw IllegalStateException("Unexpected configuration cache fingerprint: $input")
+            }
+        }
+        return inputs
+    }
+
+    private
+    suspend fun ReadContext.readProjectScopedInputs(): List<ProjectSpecificFingerprint> {
+        val inputs = mutableListOf<ProjectSpecificFingerprint>()
+        while (true) {
+            when (val input = read()) {
+                null -> break
+                is ProjectSpecificFingerprint -> inputs.add(input)
+                else -> throw IllegalStateException("Unexpected configuration cache fingerprint: $input")
+            }
+        }
+        return inputs
+    }
+
+    /**
+     * Input files usually make up most of the fingerprint, so hash them all upfront rather than one at a time while checking.
+     */
+    private
+    fun prepareHashCodesOfInputFiles(inputs: List<ConfigurationCacheFingerprint>) {
+        val files = mutableListOf<File>()
+        for (input in inputs) {
+            if (input is ConfigurationCacheFingerprint.InputFile) {
+                files.add(input.file)
+            } else if (input is ConfigurationCacheFingerprint.InitScripts) {
+                input.fingerprints.mapTo(files) { it.file }
+                files.addAll(host.allInitScripts)
+            }
+        }
+        if (files.isNotEmpty()) {
+            host.prepareHashCodesOf(files)
+        }
+    }
+
+    private
+    fun firstOutOfDate(inputs: List<ConfigurationCacheFingerprint>): InvalidationReason? {
+        for (input in inputs) {
+            val reason = check(input)
+            if (reason != null) {
+                return reason
+            }
+        }
+        return null
+    }
+
+    /**
+     * Whether the given input can be checked without hashing files or running build logic.
+     */
+    private
+    fun isCheapToCheck(input: ConfigurationCacheFingerprint) = when (input) {
+        is ConfigurationCacheFingerprint.GradleEnvironment,
+        is ConfigurationCacheFingerprint.UndeclaredSystemProperty,
+        is ConfigurationCacheFingerprint.UndeclaredEnvironmentVariable,
+        is ConfigurationCacheFingerprint.ChangingDependencyResolutionValue,
+        is ConfigurationCacheFingerprint.SystemPropertiesPrefixedBy,
+        is ConfigurationCacheFingerprint.EnvironmentVariablesPrefixedBy -> true
+        is ConfigurationCacheFingerprint.InitScripts,
+        is ConfigurationCacheFingerprint.WorkInputs,
+        is ConfigurationCacheFingerprint.InputFile,
+        is ConfigurationCacheFingerprint.ValueSource -> false
+    }
+
     suspend fun ReadContext.visitEntriesForProjects(reusedProjects: Set<Path>, consumer: Consumer<ProjectSpecificFingerprint>) {
         while (true) {
             when (val input = read()) {
@@ -296,15 +381,23 @@ class ConfigurationCacheFingerprintChecker(private val host: Host) {
             }
         }
 
+        /**
+         * Invalidates this project and, transitively, every project that consumes it.
+         *
+         * Uses an explicit work list rather than recursion, as chains of dependent or coupled projects can be very long in large builds.
+         */
         fun invalidate() {
-            if (invalid) {
-                return
-            }
-            invalid = true
-            for (consumer in consumedBy) {
-                consumer.invalidate()
+            val queue = ArrayDeque<ProjectInvalidationState>()
+            queue.add(this)
+            while (queue.isNotEmpty()) {
+                val state = queue.removeFirst()
+                if (state.invalid) {
+                    continue
+                }
+                state.invalid = true
+                queue.addAll(state.consumedBy)
+                state.consumedBy.clear()
             }
-            consumedBy.clear()
         }
     }
 }
@@ -36,6 +36,7 @@ import org.gradle.configurationcache.serialization.DefaultWriteContext
 import org.gradle.configurationcache.serialization.ReadContext
 import org.gradle.configurationcache.services.EnvironmentChangeTracker
 import org.gradle.internal.buildtree.BuildModelParameters
+import org.gradle.internal.concurrent.ExecutorFactory
 import org.gradle.internal.concurrent.Stoppable
 import org.gradle.internal.event.ListenerManager
 import org.gradle.internal.execution.FileCollectionFingerprinterRegistry
@@ -78,6 +79,7 @@ class ConfigurationCacheFingerprintController internal constructor(
     private val taskExecutionTracker: TaskExecutionTracker,
     private val environmentChangeTracker: EnvironmentChangeTracker,
     private val inputTrackingState: InputTrackingState,
+    private val executorFactory: ExecutorFactory,
 ) : Stoppable {
 
     interface Host {
@@ -334,6 +336,39 @@ class ConfigurationCacheFingerprintController internal constructor(
         override fun hashCodeOf(file: File) =
             fileSystemAccess.hashCodeOf(file)
 
+        override fun prepareHashCodesOf(files: List<File>) {
+            // The hashes end up in the virtual file system, where subsequent calls to `hashCodeOf` find them.
+            // With file system watching enabled, files that did not change since the previous build are not hashed again.
+            val parallelism = Runtime.getRuntime().availableProcessors()
+            if (files.size < 2 * parallelism) {
+                return
+            }
+            // The executor is only needed while the fingerprint is checked, so don't keep its threads around for the rest of the build
+            val executor = executorFactory.create("Configuration cache fingerprint checker", parallelism)
+            try {
+                files.chunked((files.size + parallelism - 1) / parallelism)
+                    .map { chunk ->
+                        executor.submit(
+                            Runnable {
+                                chunk.forEach { tryToHash(it) }
+                            }
+                        )
+                    }
+                    .forEach { it.get() }
+            } finally {
+                executor.stop()
+            }
+        }
+
+        private
+        fun tryToHash(file: File) {
+            try {
+                fileSystemAccess.hashCodeOf(file)
+            } catch (e: Exception) {
+                // Ignore, the failure is reported if and when the file is checked
+            }
+        }
+
         override fun fingerprintOf(fileCollection: FileCollectionInternal): HashCode =
             fileCollectionFingerprinter.fingerprint(fileCollection).hash
 
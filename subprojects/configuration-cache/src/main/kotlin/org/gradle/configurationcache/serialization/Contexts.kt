@@ -136,9 +136,37 @@ class DefaultWriteContext(
         }
     }
 
-    // TODO: consider interning strings
-    override fun writeString(string: CharSequence) =
-        encoder.writeString(string)
+    private
+    val strings = HashMap<String, Int>()
+
+    /**
+     * Strings are deduplicated: each distinct string is written once and later occurrences
+     * are written as a reference to it.
+     * Class names, file paths and property names are repeated many times in a typical state file.
+     */
+    override fun writeString(string: CharSequence) {
+        writeStringReference(string.toString())
+    }
+
+    override fun writeNullableString(string: CharSequence?) {
+        if (string == null) {
+            writeSmallInt(NULL_STRING)
+        } else {
+            writeStringReference(string.toString())
+        }
+    }
+
+    private
+    fun writeStringReference(string: String) {
+        val id = strings[string]
+        if (id != null) {
+            writeSmallInt(id + FIRST_STRING_REFERENCE)
+        } else {
+            strings[string] = strings.size
+            writeSmallInt(NEW_STRING)
+            encoder.writeString(string)
+        }
+    }
 
     override fun newIsolate(owner: IsolateOwner): WriteIsolate =
         DefaultWriteIsolate(owner)
@@ -326,11 +354,39 @@ class DefaultReadContext(
     override fun getProject(path: String): ProjectInternal =
         projectProvider(path)
 
+    private
+    val strings = ArrayList<String>()
+
+    override fun readString(): String =
+        readNullableString() ?: throw IllegalStateException("Unexpected null string.")
+
+    override fun readNullableString(): String? =
+        when (val tag = readSmallInt()) {
+            NULL_STRING -> null
+            NEW_STRING -> decoder.readString().also { strings.add(it) }
+            else -> strings[tag - FIRST_STRING_REFERENCE]
+        }
+
     override fun newIsolate(owner: IsolateOwner): ReadIsolate =
         DefaultReadIsolate(owner)
 }
 
 
+/**
+ * Tags used by [DefaultWriteContext] and [DefaultReadContext] to encode strings.
+ */
+private
+const val NULL_STRING = 0
+
+
+private
+const val NEW_STRING = 1
+
+
+private
+const val FIRST_STRING_REFERENCE = 2
+
+
 interface DecodingProvider<T> {
     suspend fun ReadContext.decode(): T?
 }
@@ -16,7 +16,6 @@
 
 package org.gradle.configurationcache.serialization.beans
 
-import com.google.common.primitives.Primitives.wrap
 import org.gradle.api.internal.GeneratedSubclasses
 import org.gradle.api.internal.IConventionAware
 import org.gradle.configurationcache.extensions.uncheckedCast
@@ -44,7 +43,7 @@ class BeanPropertyWriter(
             val fieldValue =
                 when (val isExplicitValue = relevantField.isExplicitValueField) {
                     null -> field.get(bean)
-                    else -> conventionValueOf(bean, field, isExplicitValue)
+                    else -> conventionValueOf(bean, relevantField, isExplicitValue)
                 }
             relevantField.unsupportedFieldType?.let {
                 reportUnsupportedFieldType(it, "serialize", fieldName, fieldValue)
@@ -56,16 +55,16 @@ class BeanPropertyWriter(
     }
 
     private
-    fun conventionValueOf(bean: Any, field: Field, isExplicitValue: Field) =
-        field.get(bean).let { fieldValue ->
-            if (isExplicitValue.get(bean).uncheckedCast()) {
+    fun conventionValueOf(bean: Any, relevantField: RelevantField, isExplicitValue: Field) =
+        relevantField.field.get(bean).let { fieldValue ->
+            if (isExplicitValue.getBoolean(bean)) {
                 fieldValue
             } else {
-                getConventionValue(bean, field, fieldValue)
+                getConventionValue(bean, relevantField.field, fieldValue)
                     ?.takeIf { conventionValue ->
                         // Prevent convention value to be assigned to a field of incompatible type
                         // A common cause is a regular field type being promoted to a Property/Provider type.
-                        conventionValue.isAssignableTo(field.type)
+                        relevantField.valueType.isInstance(conventionValue)
                     } ?: fieldValue
             }
         }
@@ -79,11 +78,6 @@ class BeanPropertyWriter(
     private
     fun Field.debugFrameName() =
         "${declaringClass.typeName}.$name"
-
-    private
-    fun Any?.isAssignableTo(type: Class<*>) =
-        (if (type.isPrimitive) wrap(type) else type)
-            .isInstance(this)
 }
 
 
@@ -16,6 +16,7 @@
 
 package org.gradle.configurationcache.serialization.beans
 
+import com.google.common.primitives.Primitives.wrap
 import org.gradle.api.DefaultTask
 import org.gradle.api.artifacts.Configuration
 import org.gradle.api.file.SourceDirectorySet
@@ -106,7 +107,12 @@ data class RelevantField(
      * whether a convention mapped property has been explicitly set or not.
      */
     val isExplicitValueField: Field? = null
-)
+) {
+    /**
+     * The type that values of this field must be an instance of, with primitive types replaced by their wrapper type.
+     */
+    val valueType: Class<*> = field.type.let { type -> if (type.isPrimitive) wrap(type) else type }
+}
 
 
 internal
@@ -81,13 +81,14 @@ class WorkNodeCodec(
     suspend fun ReadContext.readNodes(): List<Node> {
         val nodeCount = readSmallInt()
         val nodes = ArrayList<Node>(nodeCount)
-        val nodesById = HashMap<Int, Node>(nodeCount)
+        // Node ids are assigned sequentially, so they can be used directly as indexes
+        val nodesById = ArrayList<Node>(nodeCount)
         for (i in 0 until nodeCount) {
             val node = readNode()
-            nodesById[nodesById.size] = node
+            nodesById.add(node)
             if (node is LocalTaskNode) {
                 node.prepareNode.require()
-                nodesById[nodesById.size] = node.prepareNode
+                nodesById.add(node.prepareNode)
             }
             nodes.add(node)
         }
@@ -140,7 +141,7 @@ class WorkNodeCodec(
     }
 
     private
-    fun ReadContext.readNodeGroup(nodesById: Map<Int, Node>): NodeGroup {
+    fun ReadContext.readNodeGroup(nodesById: List<Node>): NodeGroup {
         return decodePreservingIdentity { id ->
             when (readSmallInt()) {
                 0 -> {
@@ -149,7 +150,7 @@ class WorkNodeCodec(
                 }
 
                 1 -> {
-                    val finalizerNode = nodesById.getValue(readSmallInt()) as TaskNode
+                    val finalizerNode = nodesById[readSmallInt()] as TaskNode
                     val delegate = readNodeGroup(nodesById)
                     FinalizerGroup(finalizerNode, delegate)
                 }
@@ -196,7 +197,7 @@ class WorkNodeCodec(
     }
 
     private
-    fun ReadContext.readSuccessorReferencesOf(node: Node, nodesById: Map<Int, Node>) {
+    fun ReadContext.readSuccessorReferencesOf(node: Node, nodesById: List<Node>) {
         readSuccessorReferences(nodesById) {
             node.addDependencySuccessor(it)
         }
@@ -238,11 +239,11 @@ class WorkNodeCodec(
     }
 
     private
-    fun ReadContext.readSuccessorReferences(nodesById: Map<Int, Node>, onSuccessor: (Node) -> Unit) {
+    fun ReadContext.readSuccessorReferences(nodesById: List<Node>, onSuccessor: (Node) -> Unit) {
         while (true) {
             val successorId = readSmallInt()
             if (successorId == -1) break
-            val successor = nodesById.getValue(successorId)
+            val successor = nodesById[successorId]
             onSuccessor(successor)
         }
     }
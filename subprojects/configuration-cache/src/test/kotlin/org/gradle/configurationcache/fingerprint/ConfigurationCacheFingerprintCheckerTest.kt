@@ -19,6 +19,8 @@ package org.gradle.configurationcache.fingerprint
 import com.nhaarman.mockitokotlin2.any
 import com.nhaarman.mockitokotlin2.doReturn
 import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.verify
 import org.gradle.api.Describable
 import org.gradle.api.internal.project.ProjectInternal
 import org.gradle.api.logging.Logger
@@ -47,7 +49,9 @@ import org.gradle.internal.hash.HashCode
 import org.gradle.internal.hash.TestHashCodes
 import org.gradle.internal.serialize.Decoder
 import org.gradle.internal.serialize.Encoder
+import org.gradle.util.Path
 import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.nullValue
 import org.hamcrest.MatcherAssert.assertThat
 import org.junit.Test
 import java.io.File
@@ -177,6 +181,50 @@ class ConfigurationCacheFingerprintCheckerTest {
         )
     }
 
+    @Test
+    fun `input files are hashed ahead of checking`() {
+        val scriptFile = File("build.gradle.kts")
+        val host = mock<ConfigurationCacheFingerprintChecker.Host> {
+            on { hashCodeOf(scriptFile) } doReturn TestHashCodes.hashCodeFrom(1)
+        }
+
+        assertThat(
+            checkFingerprintGiven(
+                host,
+                ConfigurationCacheFingerprint.InputFile(
+                    scriptFile,
+                    TestHashCodes.hashCodeFrom(1)
+                )
+            ),
+            nullValue()
+        )
+        verify(host).prepareHashCodesOf(listOf(scriptFile))
+    }
+
+    @Test
+    fun `input files are not hashed when a system property has changed`() {
+        val scriptFile = File("build.gradle.kts")
+        val host = mock<ConfigurationCacheFingerprintChecker.Host>()
+
+        val checkedFingerprint = recordWritingOf {
+            write(ConfigurationCacheFingerprint.InputFile(scriptFile, TestHashCodes.hashCodeFrom(1)))
+            write(ConfigurationCacheFingerprint.UndeclaredSystemProperty("org.gradle.test.changed", "original value"))
+            write(null)
+        }.runReadOperation {
+            ConfigurationCacheFingerprintChecker(host).run {
+                checkBuildScopedFingerprint()
+            }
+        }
+
+        require(checkedFingerprint is CheckedFingerprint.EntryInvalid)
+        assertThat(
+            checkedFingerprint.reason,
+            equalTo("system property 'org.gradle.test.changed' has changed")
+        )
+        verify(host, never()).prepareHashCodesOf(any())
+        verify(host, never()).hashCodeOf(scriptFile)
+    }
+
     @Test
     fun `invalidation reason includes ValueSource description`() {
 
@@ -201,6 +249,73 @@ class ConfigurationCacheFingerprintCheckerTest {
         )
     }
 
+    @Test
+    fun `invalidates projects that transitively consume a project with changed inputs`() {
+        val scriptFile = File("a/build.gradle.kts")
+        val a = Path.path(":a")
+        val b = Path.path(":b")
+        val c = Path.path(":c")
+        val d = Path.path(":d")
+
+        val checkedFingerprint = recordWritingOf {
+            write(ProjectSpecificFingerprint.ProjectDependency(c, b))
+            write(ProjectSpecificFingerprint.ProjectDependency(b, a))
+            write(ProjectSpecificFingerprint.ProjectFingerprint(d, ConfigurationCacheFingerprint.InputFile(File("d/build.gradle.kts"), TestHashCodes.hashCodeFrom(1))))
+            write(ProjectSpecificFingerprint.ProjectFingerprint(a, ConfigurationCacheFingerprint.InputFile(scriptFile, TestHashCodes.hashCodeFrom(1))))
+            write(null)
+        }.runReadOperation {
+            ConfigurationCacheFingerprintChecker(
+                mock {
+                    on { hashCodeOf(any()) } doReturn TestHashCodes.hashCodeFrom(1)
+                    on { hashCodeOf(scriptFile) } doReturn TestHashCodes.hashCodeFrom(2)
+                    on { displayNameOf(scriptFile) } doReturn "a/build.gradle.kts"
+                }
+            ).run {
+                checkProjectScopedFingerprint()
+            }
+        }
+
+        require(checkedFingerprint is CheckedFingerprint.ProjectsInvalid)
+        assertThat(
+            checkedFingerprint.reason,
+            equalTo("file 'a/build.gradle.kts' has changed")
+        )
+        assertThat(
+            checkedFingerprint.invalidProjects,
+            equalTo(setOf(a, b, c))
+        )
+    }
+
+    @Test
+    fun `does not check inputs of projects that consume a project with changed inputs`() {
+        val scriptFile = File("a/build.gradle.kts")
+        val consumerScriptFile = File("b/build.gradle.kts")
+        val a = Path.path(":a")
+        val b = Path.path(":b")
+        val host = mock<ConfigurationCacheFingerprintChecker.Host> {
+            on { hashCodeOf(scriptFile) } doReturn TestHashCodes.hashCodeFrom(2)
+            on { displayNameOf(scriptFile) } doReturn "a/build.gradle.kts"
+        }
+
+        val checkedFingerprint = recordWritingOf {
+            write(ProjectSpecificFingerprint.ProjectFingerprint(a, ConfigurationCacheFingerprint.InputFile(scriptFile, TestHashCodes.hashCodeFrom(1))))
+            write(ProjectSpecificFingerprint.ProjectFingerprint(b, ConfigurationCacheFingerprint.InputFile(consumerScriptFile, TestHashCodes.hashCodeFrom(1))))
+            write(ProjectSpecificFingerprint.ProjectDependency(b, a))
+            write(null)
+        }.runReadOperation {
+            ConfigurationCacheFingerprintChecker(host).run {
+                checkProjectScopedFingerprint()
+            }
+        }
+
+        require(checkedFingerprint is CheckedFingerprint.ProjectsInvalid)
+        assertThat(
+            checkedFingerprint.invalidProjects,
+            equalTo(setOf(a, b))
+        )
+        verify(host, never()).hashCodeOf(consumerScriptFile)
+    }
+
     private
     fun invalidationReasonForInitScriptsChange(
         from: Iterable<Pair<File, HashCode?>>,
@@ -89,6 +89,26 @@ class UserTypesCodecTest : AbstractUserTypeCodecTest() {
         }
     }
 
+    @Test
+    fun `deduplicates repeated strings`() {
+        val strings = arrayListOf("one", "two", String("one".toCharArray()), "two")
+
+        val read = configurationCacheRoundtripOf(strings)
+
+        assertThat(
+            read,
+            equalTo(strings)
+        )
+        assertThat(
+            read[2],
+            sameInstance(read[0])
+        )
+        assertThat(
+            read[3],
+            sameInstance(read[1])
+        )
+    }
+
     @Test
     fun `Peano sanity check`() {
 
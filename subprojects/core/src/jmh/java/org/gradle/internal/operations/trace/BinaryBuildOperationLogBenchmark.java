@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.OperationFinishEvent;
+import org.gradle.internal.operations.OperationIdentifier;
+import org.gradle.internal.operations.OperationStartEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Measures the cost the {@link BinaryBuildOperationLog} adds to the threads reporting build operations, with one and with several reporting threads.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class BinaryBuildOperationLogBenchmark {
+
+    private File file;
+    private BinaryBuildOperationLog log;
+
+    @Setup
+    public void setup() throws IOException {
+        file = File.createTempFile("build-operations", ".bin");
+        log = new BinaryBuildOperationLog(file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        log.close();
+        file.delete();
+    }
+
+    @Benchmark
+    public void singleThread(Operations operations) {
+        operations.report(log);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void fourThreads(Operations operations) {
+        operations.report(log);
+    }
+
+    @State(Scope.Thread)
+    public static class Operations {
+        private static final OperationFinishEvent FINISH = new OperationFinishEvent(0, 1, null, "result");
+
+        private long id;
+
+        void report(BinaryBuildOperationLog log) {
+            id++;
+            BuildOperationDescriptor operation = BuildOperationDescriptor.displayName("Task :project" + (id % 100) + ":compileJava")
+                .details("details")
+                .build(new OperationIdentifier(id), null);
+            log.started(operation, new OperationStartEvent(id));
+            log.finished(operation, FINISH);
+        }
+    }
+}
@@ -40,18 +40,24 @@ public DefaultResourceSnapshotterCacheService(PersistentIndexedCache<HashCode, H
     @Nullable
     @Override
     public HashCode hashFile(FileSystemLocationSnapshot snapshot, FileSystemLocationSnapshotHasher hasher, HashCode configurationHash) throws IOException {
-        return hashFile(snapshot, () -> hasher.hash(snapshot), configurationHash);
+        return hashFile(snapshot.getHash(), () -> hasher.hash(snapshot), configurationHash);
     }
 
     @Nullable
     @Override
     public HashCode hashFile(RegularFileSnapshotContext fileSnapshotContext, RegularFileSnapshotContextHasher hasher, HashCode configurationHash) throws IOException {
-        return hashFile(fileSnapshotContext.getSnapshot(), () -> hasher.hash(fileSnapshotContext), configurationHash);
+        return hashFile(fileSnapshotContext.getSnapshot().getHash(), () -> hasher.hash(fileSnapshotContext), configurationHash);
     }
 
     @Nullable
-    private HashCode hashFile(FileSystemLocationSnapshot snapshot, IoSupplier<HashCode> hashCodeSupplier, HashCode configurationHash) throws IOException {
-        HashCode resourceHashCacheKey = resourceHashCacheKey(snapshot.getHash(), configurationHash);
+    @Override
+    public HashCode hashZipEntry(String archivePath, HashCode entryKey, IoSupplier<HashCode> hasher, HashCode configurationHash) throws IOException {
+        return hashFile(entryKey, hasher, configurationHash);
+    }
+
+    @Nullable
+    private HashCode hashFile(HashCode contentHash, IoSupplier<HashCode> hashCodeSupplier, HashCode configurationHash) throws IOException {
+        HashCode resourceHashCacheKey = resourceHashCacheKey(contentHash, configurationHash);
 
         HashCode resourceHash = persistentCache.getIfPresent(resourceHashCacheKey);
         if (resourceHash != null) {
@@ -21,6 +21,7 @@
 import org.gradle.internal.fingerprint.hashing.RegularFileSnapshotContextHasher;
 import org.gradle.internal.fingerprint.hashing.RegularFileSnapshotContext;
 import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.io.IoSupplier;
 import org.gradle.internal.snapshot.FileSystemLocationSnapshot;
 
 import javax.annotation.Nullable;
@@ -59,4 +60,14 @@ public HashCode hashFile(RegularFileSnapshotContext fileSnapshotContext, Regular
             return localCache.hashFile(fileSnapshotContext, hasher, configurationHash);
         }
     }
+
+    @Nullable
+    @Override
+    public HashCode hashZipEntry(String archivePath, HashCode entryKey, IoSupplier<HashCode> hasher, HashCode configurationHash) throws IOException {
+        if (globalCacheLocations.isInsideGlobalCache(archivePath)) {
+            return globalCache.hashZipEntry(archivePath, entryKey, hasher, configurationHash);
+        } else {
+            return localCache.hashZipEntry(archivePath, entryKey, hasher, configurationHash);
+        }
+    }
 }
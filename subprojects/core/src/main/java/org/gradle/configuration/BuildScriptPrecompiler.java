@@ -0,0 +1,159 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configuration;
+
+import org.gradle.api.initialization.dsl.VersionCatalogBuilder;
+import org.gradle.api.internal.GradleInternal;
+import org.gradle.api.internal.initialization.ClassLoaderScope;
+import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectState;
+import org.gradle.groovy.scripts.ScriptSource;
+import org.gradle.groovy.scripts.internal.CompileOperation;
+import org.gradle.groovy.scripts.internal.CrossBuildInMemoryCachingScriptClassCache;
+import org.gradle.groovy.scripts.internal.Permits;
+import org.gradle.groovy.scripts.internal.ScriptClassCompiler;
+import org.gradle.internal.Actions;
+import org.gradle.internal.buildtree.BuildModelParameters;
+import org.gradle.internal.management.DependencyResolutionManagementInternal;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compiles the first pass of the Groovy build scripts of all projects of a build concurrently, before the projects are configured.
+ *
+ * The first pass of a project build script, which extracts the {@code buildscript {}} and {@code plugins {}} blocks, is compiled
+ * against the base class loader scope of the projects, which is shared by all projects and locked before any of them is configured.
+ * So it can be compiled up front, and the configuration of each project only needs to load it.
+ * The second pass is compiled against the class loader scope of the project itself, which is only known once the plugins
+ * of the project have been resolved, and so is still compiled when the project is configured.
+ *
+ * A script that fails to compile is left alone, so that the failure is reported when the project is configured.
+ */
+public class BuildScriptPrecompiler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BuildScriptPrecompiler.class);
+    private static final String GROOVY_SCRIPT_EXTENSION = ".gradle";
+
+    private final CompileOperationFactory compileOperationFactory;
+    private final CrossBuildInMemoryCachingScriptClassCache scriptClassCache;
+    private final ScriptClassCompiler scriptClassCompiler;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final BuildModelParameters buildModelParameters;
+
+    public BuildScriptPrecompiler(
+        CompileOperationFactory compileOperationFactory,
+        CrossBuildInMemoryCachingScriptClassCache scriptClassCache,
+        ScriptClassCompiler scriptClassCompiler,
+        BuildOperationExecutor buildOperationExecutor,
+        BuildModelParameters buildModelParameters
+    ) {
+        this.compileOperationFactory = compileOperationFactory;
+        this.scriptClassCache = scriptClassCache;
+        this.scriptClassCompiler = scriptClassCompiler;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.buildModelParameters = buildModelParameters;
+    }
+
+    public void precompileBuildScripts(GradleInternal gradle) {
+        if (buildModelParameters.isConfigureOnDemand() && gradle.isRootBuild()) {
+            // Only the projects that are required are configured, so do not compile the scripts of all projects
+            return;
+        }
+        List<PrecompileBuildScript> operations = new ArrayList<>();
+        Permits permits = versionCatalogPermitsOf(gradle);
+        for (ProjectState projectState : gradle.getOwner().getProjects().getAllProjects()) {
+            ProjectInternal project = projectState.getMutableModel();
+            ScriptSource source = project.getBuildScriptSource();
+            if (!source.getFileName().endsWith(GROOVY_SCRIPT_EXTENSION) || source.getResource().getHasEmptyContent()) {
+                continue;
+            }
+            // Read the script source and derive its class name on this thread, as script sources are not thread-safe
+            source.getClassName();
+            source.getResource().getContentHash();
+            ScriptTarget target = new PrecompilingProjectScriptTarget(project, permits);
+            operations.add(new PrecompileBuildScript(source, target, compileOperationFactory.getPluginsBlockCompileOperation(target), project.getBaseClassLoaderScope()));
+        }
+        if (operations.size() < 2) {
+            // Nothing to gain over compiling the script when the project is configured
+            return;
+        }
+        buildOperationExecutor.runAll(queue -> operations.forEach(queue::add));
+    }
+
+    /**
+     * The names of the version catalogs that the {@code plugins {}} block of a project script may refer to.
+     * The project extensions which provide them are only created once the project is configured.
+     */
+    private static Permits versionCatalogPermitsOf(GradleInternal gradle) {
+        DependencyResolutionManagementInternal dependencyResolutionManagement = gradle.getServices().get(DependencyResolutionManagementInternal.class);
+        Set<String> catalogNames = new LinkedHashSet<>();
+        for (VersionCatalogBuilder builder : dependencyResolutionManagement.getDependenciesModelBuilders()) {
+            catalogNames.add(builder.getName());
+        }
+        return catalogNames.isEmpty() ? Permits.none() : new Permits(catalogNames);
+    }
+
+    private class PrecompileBuildScript implements RunnableBuildOperation {
+        private final ScriptSource source;
+        private final ScriptTarget target;
+        private final CompileOperation<?> operation;
+        private final ClassLoaderScope baseScope;
+
+        PrecompileBuildScript(ScriptSource source, ScriptTarget target, CompileOperation<?> operation, ClassLoaderScope baseScope) {
+            this.source = source;
+            this.target = target;
+            this.operation = operation;
+            this.baseScope = baseScope;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            try {
+                scriptClassCache.precompile(source, baseScope, operation, target.getScriptClass(), Actions.doNothing(), scriptClassCompiler);
+            } catch (Exception e) {
+                LOGGER.debug("Could not precompile {}.", source.getDisplayName(), e);
+            }
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Precompile " + source.getShortDisplayName());
+        }
+    }
+
+    private static class PrecompilingProjectScriptTarget extends ProjectScriptTarget {
+        private final Permits pluginsBlockPermits;
+
+        PrecompilingProjectScriptTarget(ProjectInternal target, Permits pluginsBlockPermits) {
+            super(target);
+            this.pluginsBlockPermits = pluginsBlockPermits;
+        }
+
+        @Override
+        public Permits getPluginsBlockPermits() {
+            return pluginsBlockPermits;
+        }
+    }
+}
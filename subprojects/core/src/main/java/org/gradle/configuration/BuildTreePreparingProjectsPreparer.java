@@ -36,12 +36,14 @@ public class BuildTreePreparingProjectsPreparer implements ProjectsPreparer {
     private final BuildInclusionCoordinator coordinator;
     private final BuildSourceBuilder buildSourceBuilder;
     private final BuildLoader buildLoader;
+    private final BuildScriptPrecompiler buildScriptPrecompiler;
 
-    public BuildTreePreparingProjectsPreparer(ProjectsPreparer delegate, BuildLoader buildLoader, BuildInclusionCoordinator coordinator, BuildSourceBuilder buildSourceBuilder) {
+    public BuildTreePreparingProjectsPreparer(ProjectsPreparer delegate, BuildLoader buildLoader, BuildInclusionCoordinator coordinator, BuildSourceBuilder buildSourceBuilder, BuildScriptPrecompiler buildScriptPrecompiler) {
         this.delegate = delegate;
         this.buildLoader = buildLoader;
         this.coordinator = coordinator;
         this.buildSourceBuilder = buildSourceBuilder;
+        this.buildScriptPrecompiler = buildScriptPrecompiler;
     }
 
     @Override
@@ -60,6 +62,8 @@ public void prepareProjects(GradleInternal gradle) {
         }
         // Build buildSrc and export classpath to root project
         buildBuildSrcAndLockClassloader(gradle, buildSrcClassLoaderScope);
+        // The base scope of the project scripts is now known, so compile them ahead of configuring the projects
+        buildScriptPrecompiler.precompileBuildScripts(gradle);
 
         delegate.prepareProjects(gradle);
     }
@@ -19,13 +19,36 @@
 import org.gradle.api.BuildCancelledException;
 import org.gradle.api.Project;
 import org.gradle.api.internal.project.ProjectInternal;
+import org.gradle.api.internal.project.ProjectState;
 import org.gradle.initialization.BuildCancellationToken;
+import org.gradle.internal.buildtree.BuildModelParameters;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resources.ProjectLeaseRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 public class TaskPathProjectEvaluator implements ProjectConfigurer {
     private final BuildCancellationToken cancellationToken;
+    private final BuildModelParameters buildModelParameters;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final ProjectLeaseRegistry projectLeaseRegistry;
 
-    public TaskPathProjectEvaluator(BuildCancellationToken cancellationToken) {
+    public TaskPathProjectEvaluator(
+        BuildCancellationToken cancellationToken,
+        BuildModelParameters buildModelParameters,
+        BuildOperationExecutor buildOperationExecutor,
+        ProjectLeaseRegistry projectLeaseRegistry
+    ) {
         this.cancellationToken = cancellationToken;
+        this.buildModelParameters = buildModelParameters;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.projectLeaseRegistry = projectLeaseRegistry;
     }
 
     @Override
@@ -45,8 +68,57 @@ public void configureFully(ProjectInternal project) {
     @Override
     public void configureHierarchy(ProjectInternal project) {
         configure(project);
-        for (Project sub : project.getSubprojects()) {
-            configure((ProjectInternal) sub);
+        if (buildModelParameters.isParallelProjectConfiguration() && projectLeaseRegistry.getAllowsParallelExecution()) {
+            configureSubprojectsInParallel(project.getOwner());
+        } else {
+            for (Project sub : project.getSubprojects()) {
+                configure((ProjectInternal) sub);
+            }
+        }
+    }
+
+    /**
+     * Configures the subprojects one level of the hierarchy at a time, so that the parent of each project is configured before the project itself.
+     */
+    private void configureSubprojectsInParallel(ProjectState project) {
+        List<ProjectState> level = childProjectsOf(Collections.singleton(project));
+        while (!level.isEmpty()) {
+            if (cancellationToken.isCancellationRequested()) {
+                throw new BuildCancelledException();
+            }
+            List<ProjectState> projects = level;
+            buildOperationExecutor.runAllWithAccessToProjectState(queue -> {
+                for (ProjectState child : projects) {
+                    queue.add(new ConfigureProject(child));
+                }
+            });
+            level = childProjectsOf(projects);
+        }
+    }
+
+    private static List<ProjectState> childProjectsOf(Collection<ProjectState> projects) {
+        List<ProjectState> children = new ArrayList<>();
+        for (ProjectState project : projects) {
+            children.addAll(project.getChildProjects());
+        }
+        return children;
+    }
+
+    private static class ConfigureProject implements RunnableBuildOperation {
+        private final ProjectState project;
+
+        public ConfigureProject(ProjectState project) {
+            this.project = project;
+        }
+
+        @Override
+        public void run(BuildOperationContext context) {
+            project.ensureConfigured();
+        }
+
+        @Override
+        public BuildOperationDescriptor.Builder description() {
+            return BuildOperationDescriptor.displayName("Ensure " + project.getDisplayName() + " is configured");
         }
     }
 }
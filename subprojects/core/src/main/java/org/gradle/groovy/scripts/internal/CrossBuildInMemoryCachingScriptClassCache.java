@@ -52,6 +52,26 @@ public <T extends Script, M> CompiledScript<T, M> getOrCompile(ScriptSource sour
         return compiledScript;
     }
 
+    /**
+     * Compiles the given script using the given delegate, unless a compiled script with the same content is already cached.
+     * Unlike {@link #getOrCompile}, this does not reuse a cached compiled script, so it can be used ahead of running the script.
+     */
+    public <T extends Script, M> void precompile(ScriptSource source,
+                                                 ClassLoaderScope targetScope,
+                                                 CompileOperation<M> operation,
+                                                 Class<T> scriptBaseClass,
+                                                 Action<? super ClassNode> verifier,
+                                                 ScriptClassCompiler delegate) {
+        ScriptCacheKey key = new ScriptCacheKey(source.getClassName(), targetScope.getExportClassLoader(), operation.getId());
+        CachedCompiledScript cached = cachedCompiledScripts.getIfPresent(key);
+        HashCode hash = source.getResource().getContentHash();
+        if (cached != null && hash.equals(cached.hash)) {
+            return;
+        }
+        CompiledScript<T, M> compiledScript = delegate.compile(source, targetScope, operation, scriptBaseClass, verifier);
+        cachedCompiledScripts.put(key, new CachedCompiledScript(hash, compiledScript));
+    }
+
     private static class CachedCompiledScript {
         private final HashCode hash;
         private final CompiledScript<?, ?> compiledScript;
@@ -26,6 +26,7 @@ public class BuildModelParameters {
     private final boolean isolatedProjects;
     private final boolean requiresBuildModel;
     private final boolean intermediateModelCache;
+    private final boolean parallelProjectConfiguration;
     private final boolean parallelToolingApiActions;
     private final boolean invalidateCoupledProjects;
 
@@ -35,6 +36,7 @@ public BuildModelParameters(
         boolean isolatedProjects,
         boolean requiresBuildModel,
         boolean intermediateModelCache,
+        boolean parallelProjectConfiguration,
         boolean parallelToolingApiActions,
         boolean invalidateCoupledProjects
     ) {
@@ -43,6 +45,7 @@ public BuildModelParameters(
         this.isolatedProjects = isolatedProjects;
         this.requiresBuildModel = requiresBuildModel;
         this.intermediateModelCache = intermediateModelCache;
+        this.parallelProjectConfiguration = parallelProjectConfiguration;
         this.parallelToolingApiActions = parallelToolingApiActions;
         this.invalidateCoupledProjects = invalidateCoupledProjects;
     }
@@ -76,6 +79,14 @@ public boolean isIntermediateModelCache() {
         return intermediateModelCache;
     }
 
+    /**
+     * When {@link  #isIsolatedProjects()} is true, should the projects of a hierarchy be configured in parallel?
+     * Each project is still configured after its parent.
+     */
+    public boolean isParallelProjectConfiguration() {
+        return parallelProjectConfiguration;
+    }
+
     /**
      * Force parallel tooling API actions? When true, always use parallel execution, when false use a default value.
      */
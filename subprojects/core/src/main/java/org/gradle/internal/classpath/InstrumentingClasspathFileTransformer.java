@@ -37,8 +37,10 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 
 import static java.lang.String.format;
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
@@ -46,6 +48,7 @@
 class InstrumentingClasspathFileTransformer implements ClasspathFileTransformer {
     private static final Logger LOGGER = LoggerFactory.getLogger(InstrumentingClasspathFileTransformer.class);
     private static final int CACHE_FORMAT = 5;
+    private static final String RECEIPT_SUFFIX = ".receipt";
 
     private final FileLockManager fileLockManager;
     private final ClasspathWalker classpathWalker;
@@ -78,7 +81,7 @@ public File transform(File source, FileSystemLocationSnapshot sourceSnapshot, Fi
         String destDirName = hashOf(sourceSnapshot);
         File destDir = new File(cacheDir, destDirName);
         String destFileName = sourceSnapshot.getType() == FileType.Directory ? source.getName() + ".jar" : source.getName();
-        File receipt = new File(destDir, destFileName + ".receipt");
+        File receipt = new File(destDir, destFileName + RECEIPT_SUFFIX);
         File transformed = new File(destDir, destFileName);
 
         // Avoid file locking overhead by checking for the receipt first.
@@ -93,7 +96,13 @@ public File transform(File source, FileSystemLocationSnapshot sourceSnapshot, Fi
                 // Lock was acquired after a concurrent writer had already finished.
                 return transformed;
             }
-            transform(source, transformed);
+            File instrumentedCopy = instrumentedFileIn(destDir);
+            if (instrumentedCopy != null) {
+                // The same content has already been instrumented from a file with another name, so share the result
+                share(instrumentedCopy, transformed);
+            } else {
+                transform(source, transformed);
+            }
             try {
                 receipt.createNewFile();
             } catch (IOException e) {
@@ -108,6 +117,36 @@ public File transform(File source, FileSystemLocationSnapshot sourceSnapshot, Fi
         }
     }
 
+    /**
+     * Returns a file in the given directory which has already been instrumented, if any.
+     * The directory is keyed by the content of the source file, so the contents of all instrumented files in it are the same.
+     */
+    @Nullable
+    private static File instrumentedFileIn(File destDir) {
+        File[] receipts = destDir.listFiles((dir, name) -> name.endsWith(RECEIPT_SUFFIX));
+        if (receipts == null) {
+            return null;
+        }
+        for (File receipt : receipts) {
+            String receiptName = receipt.getName();
+            File instrumented = new File(destDir, receiptName.substring(0, receiptName.length() - RECEIPT_SUFFIX.length()));
+            if (instrumented.isFile()) {
+                return instrumented;
+            }
+        }
+        return null;
+    }
+
+    private static void share(File instrumented, File dest) {
+        try {
+            Files.deleteIfExists(dest.toPath());
+            Files.createLink(dest.toPath(), instrumented.toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            // Hard links are not supported by the file system, so fall back to copying
+            GFileUtils.copyFile(instrumented, dest);
+        }
+    }
+
     private FileLock exclusiveLockFor(File file) {
         return fileLockManager.lock(
             file,
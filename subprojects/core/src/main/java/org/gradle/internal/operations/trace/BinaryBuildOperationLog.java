@@ -0,0 +1,402 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.OperationFinishEvent;
+import org.gradle.internal.operations.OperationIdentifier;
+import org.gradle.internal.operations.OperationProgressEvent;
+import org.gradle.internal.operations.OperationStartEvent;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * A compact binary log of the build operation stream.
+ *
+ * Only the structure and timing of the operations is recorded: ids, display names, the class names of details and results,
+ * timestamps, the thread that started each operation and failure messages.
+ * Details and results themselves are not serialized, which is what makes the JSON log too expensive to leave enabled.
+ *
+ * Each thread encodes its events into its own buffer, so threads reporting events only contend on a global sequence number.
+ * A background thread writes a buffer to the file once it is full, and writes whatever the threads have buffered at a fixed interval,
+ * so a build which does not stop cleanly loses at most the events of the last interval.
+ * The file is a sequence of frames, each holding the events of a single thread. Strings are written once per frame
+ * and then referred to by their index, and events are put back into the order they were reported in when the log is read.
+ */
+class BinaryBuildOperationLog implements Closeable {
+
+    private static final byte START = 1;
+    private static final byte PROGRESS = 2;
+    private static final byte FINISH = 3;
+
+    private static final int NULL_STRING = 0;
+    private static final int NEW_STRING = 1;
+    private static final int FIRST_STRING_REFERENCE = 2;
+
+    private static final int FRAME_SIZE = 64 * 1024;
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+
+    private final int frameSize;
+    private final long flushIntervalMillis;
+    private final DataOutputStream outputStream;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Set<ThreadBuffer> buffers = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<ThreadBuffer> currentBuffer = ThreadLocal.withInitial(this::newBuffer);
+    private final BlockingQueue<byte[]> fullFrames = new LinkedBlockingQueue<>();
+    private final Thread flusher;
+    private volatile boolean closed;
+    private IOException failure;
+
+    BinaryBuildOperationLog(File file) throws IOException {
+        this(file, FRAME_SIZE, FLUSH_INTERVAL_MILLIS);
+    }
+
+    BinaryBuildOperationLog(File file, int frameSize, long flushIntervalMillis) throws IOException {
+        this.frameSize = frameSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), FRAME_SIZE));
+        this.flusher = new Thread(this::flushPeriodically, "Build operation trace writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    void started(BuildOperationDescriptor buildOperation, OperationStartEvent startEvent) {
+        OperationIdentifier parentId = buildOperation.getParentId();
+        ThreadBuffer buffer = currentBuffer.get();
+        synchronized (buffer) {
+            KryoBackedEncoder encoder = buffer.startEvent(START, sequence.incrementAndGet());
+            encoder.writeSmallLong(buildOperation.getId().getId());
+            encoder.writeSmallLong(parentId == null ? 0 : parentId.getId());
+            buffer.writeString(buildOperation.getDisplayName());
+            buffer.writeString(classNameOf(buildOperation.getDetails()));
+            encoder.writeLong(startEvent.getStartTime());
+            encoder.writeSmallLong(buffer.threadId);
+            buffer.finishEvent();
+        }
+    }
+
+    void progress(OperationIdentifier buildOperationId, OperationProgressEvent progressEvent) {
+        ThreadBuffer buffer = currentBuffer.get();
+        synchronized (buffer) {
+            KryoBackedEncoder encoder = buffer.startEvent(PROGRESS, sequence.incrementAndGet());
+            encoder.writeSmallLong(buildOperationId.getId());
+            buffer.writeString(classNameOf(progressEvent.getDetails()));
+            encoder.writeLong(progressEvent.getTime());
+            buffer.finishEvent();
+        }
+    }
+
+    void finished(BuildOperationDescriptor buildOperation, OperationFinishEvent finishEvent) {
+        ThreadBuffer buffer = currentBuffer.get();
+        synchronized (buffer) {
+            KryoBackedEncoder encoder = buffer.startEvent(FINISH, sequence.incrementAndGet());
+            encoder.writeSmallLong(buildOperation.getId().getId());
+            buffer.writeString(classNameOf(finishEvent.getResult()));
+            encoder.writeNullableString(finishEvent.getFailure() == null ? null : finishEvent.getFailure().toString());
+            encoder.writeLong(finishEvent.getEndTime());
+            buffer.finishEvent();
+        }
+    }
+
+    /**
+     * Writes all buffered events and closes the file.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flusher.interrupt();
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeFullFrames();
+        writeBufferedEvents();
+        try {
+            outputStream.close();
+        } catch (IOException e) {
+            recordFailure(e);
+        }
+        if (failure != null) {
+            throw UncheckedException.throwAsUncheckedException(failure);
+        }
+    }
+
+    private ThreadBuffer newBuffer() {
+        ThreadBuffer buffer = new ThreadBuffer(Thread.currentThread());
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private void flushPeriodically() {
+        long nextFlush = System.currentTimeMillis() + flushIntervalMillis;
+        while (!closed) {
+            try {
+                byte[] frame = fullFrames.poll(Math.max(0, nextFlush - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                if (frame != null) {
+                    writeFrame(frame);
+                    writeFullFrames();
+                }
+            } catch (InterruptedException e) {
+                // Closing
+                return;
+            }
+            if (System.currentTimeMillis() >= nextFlush) {
+                writeBufferedEvents();
+                nextFlush = System.currentTimeMillis() + flushIntervalMillis;
+            }
+        }
+    }
+
+    private void writeFullFrames() {
+        byte[] frame;
+        while ((frame = fullFrames.poll()) != null) {
+            writeFrame(frame);
+        }
+    }
+
+    private void writeBufferedEvents() {
+        Iterator<ThreadBuffer> iterator = buffers.iterator();
+        while (iterator.hasNext()) {
+            ThreadBuffer buffer = iterator.next();
+            byte[] frame;
+            synchronized (buffer) {
+                frame = buffer.takeFrame();
+            }
+            if (frame != null) {
+                writeFrame(frame);
+            }
+            if (!buffer.owner.isAlive()) {
+                // No more events can arrive from this buffer
+                iterator.remove();
+            }
+        }
+        try {
+            outputStream.flush();
+        } catch (IOException e) {
+            recordFailure(e);
+        }
+    }
+
+    private void writeFrame(byte[] frame) {
+        if (failure != null) {
+            return;
+        }
+        try {
+            outputStream.writeInt(frame.length);
+            outputStream.write(frame);
+        } catch (IOException e) {
+            recordFailure(e);
+        }
+    }
+
+    private void recordFailure(IOException e) {
+        if (failure == null) {
+            failure = e;
+        }
+    }
+
+    @Nullable
+    private static String classNameOf(@Nullable Object object) {
+        return object == null ? null : object.getClass().getName();
+    }
+
+    private class ThreadBuffer {
+        private final Thread owner;
+        private final long threadId;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(frameSize);
+        private final KryoBackedEncoder encoder = new KryoBackedEncoder(bytes, 8192);
+        private final Map<String, Integer> strings = new HashMap<>();
+        private long frameStart;
+
+        ThreadBuffer(Thread owner) {
+            this.owner = owner;
+            this.threadId = owner.getId();
+        }
+
+        KryoBackedEncoder startEvent(byte tag, long sequenceNumber) {
+            encoder.writeByte(tag);
+            encoder.writeSmallLong(sequenceNumber);
+            return encoder;
+        }
+
+        void writeString(@Nullable String string) {
+            if (string == null) {
+                encoder.writeSmallInt(NULL_STRING);
+                return;
+            }
+            Integer id = strings.get(string);
+            if (id != null) {
+                encoder.writeSmallInt(id + FIRST_STRING_REFERENCE);
+            } else {
+                strings.put(string, strings.size());
+                encoder.writeSmallInt(NEW_STRING);
+                encoder.writeString(string);
+            }
+        }
+
+        void finishEvent() {
+            if (encoder.getWritePosition() - frameStart >= frameSize) {
+                fullFrames.add(takeFrame());
+            }
+        }
+
+        @Nullable
+        byte[] takeFrame() {
+            if (encoder.getWritePosition() == frameStart) {
+                return null;
+            }
+            encoder.flush();
+            byte[] frame = bytes.toByteArray();
+            bytes.reset();
+            strings.clear();
+            frameStart = encoder.getWritePosition();
+            return frame;
+        }
+    }
+
+    interface Visitor {
+        void started(SerializedOperationStart start, long threadId);
+
+        void progress(SerializedOperationProgress progress);
+
+        void finished(SerializedOperationFinish finish);
+    }
+
+    /**
+     * Reads the given log in the order the events were reported in, stopping at the last complete frame when the log was not closed.
+     */
+    static void read(File file, Visitor visitor) throws IOException {
+        List<Event> events = new ArrayList<>();
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file), FRAME_SIZE))) {
+            while (true) {
+                byte[] frame;
+                try {
+                    frame = new byte[inputStream.readInt()];
+                    inputStream.readFully(frame);
+                } catch (EOFException e) {
+                    // End of the log, or a truncated last frame
+                    break;
+                }
+                readFrame(file, frame, events);
+            }
+        }
+        events.sort(Comparator.comparingLong(event -> event.sequenceNumber));
+        for (Event event : events) {
+            event.visit(visitor);
+        }
+    }
+
+    private static void readFrame(File file, byte[] frame, List<Event> events) throws IOException {
+        List<String> strings = new ArrayList<>();
+        try (KryoBackedDecoder decoder = new KryoBackedDecoder(new ByteArrayInputStream(frame))) {
+            while (true) {
+                byte tag;
+                try {
+                    tag = decoder.readByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                long sequenceNumber = decoder.readSmallLong();
+                switch (tag) {
+                    case START:
+                        long id = decoder.readSmallLong();
+                        long parentId = decoder.readSmallLong();
+                        String displayName = readString(decoder, strings);
+                        String detailsClassName = readString(decoder, strings);
+                        long startTime = decoder.readLong();
+                        long threadId = decoder.readSmallLong();
+                        SerializedOperationStart start = new SerializedOperationStart(id, parentId == 0 ? null : parentId, displayName, startTime, detailsClassName);
+                        events.add(new Event(sequenceNumber, visitor -> visitor.started(start, threadId)));
+                        break;
+                    case PROGRESS:
+                        long progressId = decoder.readSmallLong();
+                        String progressClassName = readString(decoder, strings);
+                        SerializedOperationProgress progress = new SerializedOperationProgress(progressId, decoder.readLong(), progressClassName);
+                        events.add(new Event(sequenceNumber, visitor -> visitor.progress(progress)));
+                        break;
+                    case FINISH:
+                        long finishId = decoder.readSmallLong();
+                        String resultClassName = readString(decoder, strings);
+                        String failure = decoder.readNullableString();
+                        SerializedOperationFinish finish = new SerializedOperationFinish(finishId, decoder.readLong(), resultClassName, failure);
+                        events.add(new Event(sequenceNumber, visitor -> visitor.finished(finish)));
+                        break;
+                    default:
+                        throw new IllegalStateException("Unexpected event tag " + tag + " in build operation log " + file + ".");
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private static String readString(KryoBackedDecoder decoder, List<String> strings) throws IOException {
+        int tag = decoder.readSmallInt();
+        switch (tag) {
+            case NULL_STRING:
+                return null;
+            case NEW_STRING:
+                String string = decoder.readString();
+                strings.add(string);
+                return string;
+            default:
+                return strings.get(tag - FIRST_STRING_REFERENCE);
+        }
+    }
+
+    private static class Event {
+        private final long sequenceNumber;
+        private final Consumer<Visitor> action;
+
+        Event(long sequenceNumber, Consumer<Visitor> action) {
+            this.sequenceNumber = sequenceNumber;
+            this.action = action;
+        }
+
+        void visit(Visitor visitor) {
+            action.accept(visitor);
+        }
+    }
+}
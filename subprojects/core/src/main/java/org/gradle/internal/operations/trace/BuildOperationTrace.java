@@ -40,6 +40,7 @@
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -74,6 +75,12 @@
  * The «path-base» param is optional.
  * If invoked as `-Dorg.gradle.internal.operations.trace`, a base value of "operations" will be used.
  *
+ * Adding `-Dorg.gradle.internal.operations.trace.format=binary` selects a low overhead mode, intended to be left enabled.
+ * Only the structure and timing of operations is recorded, without their details and results,
+ * into a compact «path-base»-log.bin file and no other files are created during the build.
+ * {@link #convertBinaryLog(String)}, also available via {@link BuildOperationTraceConverter}, converts it into the files above,
+ * plus «path-base»-trace.json, which can be loaded into the Chrome trace viewer.
+ *
  * The “trace” produced here is different to the trace produced by Gradle Profiler.
  * There, the focus is analyzing the performance profile.
  * Here, the focus is debugging/developing the information structure of build operations.
@@ -83,11 +90,14 @@
 public class BuildOperationTrace implements Stoppable {
 
     public static final String SYSPROP = "org.gradle.internal.operations.trace";
+    public static final String FORMAT_SYSPROP = "org.gradle.internal.operations.trace.format";
+    public static final String BINARY_FORMAT = "binary";
 
     private static final byte[] NEWLINE = "\n".getBytes();
 
     private final String basePath;
     private final OutputStream logOutputStream;
+    private final BinaryBuildOperationLog binaryLog;
 
     private final BuildOperationListenerManager buildOperationListenerManager;
 
@@ -108,6 +118,23 @@ public void finished(BuildOperationDescriptor buildOperation, OperationFinishEve
         }
     };
 
+    private final BuildOperationListener binaryListener = new BuildOperationListener() {
+        @Override
+        public void started(BuildOperationDescriptor buildOperation, OperationStartEvent startEvent) {
+            binaryLog.started(buildOperation, startEvent);
+        }
+
+        @Override
+        public void progress(OperationIdentifier buildOperationId, OperationProgressEvent progressEvent) {
+            binaryLog.progress(buildOperationId, progressEvent);
+        }
+
+        @Override
+        public void finished(BuildOperationDescriptor buildOperation, OperationFinishEvent finishEvent) {
+            binaryLog.finished(buildOperation, finishEvent);
+        }
+    };
+
     public BuildOperationTrace(StartParameter startParameter, BuildOperationListenerManager buildOperationListenerManager) {
         this.buildOperationListenerManager = buildOperationListenerManager;
 
@@ -120,9 +147,33 @@ public BuildOperationTrace(StartParameter startParameter, BuildOperationListener
         this.basePath = basePath;
         if (this.basePath == null || basePath.equals(Boolean.FALSE.toString())) {
             this.logOutputStream = null;
+            this.binaryLog = null;
+            return;
+        }
+
+        String format = sysProps.get(FORMAT_SYSPROP);
+        if (format == null) {
+            format = System.getProperty(FORMAT_SYSPROP);
+        }
+        if (BINARY_FORMAT.equals(format)) {
+            this.logOutputStream = null;
+            try {
+                File binaryLogFile = binaryLogFile(basePath);
+                GFileUtils.mkdirs(binaryLogFile.getParentFile());
+                // Remove any log from an earlier build, so that it is not mistaken for a conversion of this log
+                File logFile = logFile(basePath);
+                if (logFile.isFile()) {
+                    GFileUtils.forceDelete(logFile);
+                }
+                this.binaryLog = new BinaryBuildOperationLog(binaryLogFile);
+            } catch (IOException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+            buildOperationListenerManager.addListener(binaryListener);
             return;
         }
 
+        this.binaryLog = null;
         try {
             File logFile = logFile(basePath);
             GFileUtils.mkdirs(logFile.getParentFile());
@@ -142,6 +193,11 @@ public BuildOperationTrace(StartParameter startParameter, BuildOperationListener
 
     @Override
     public void stop() {
+        if (binaryLog != null) {
+            buildOperationListenerManager.removeListener(binaryListener);
+            binaryLog.close();
+            return;
+        }
         buildOperationListenerManager.removeListener(listener);
         if (logOutputStream != null) {
             try {
@@ -150,8 +206,8 @@ public void stop() {
                 }
 
                 final List<BuildOperationRecord> roots = readLogToTreeRoots(logFile(basePath));
-                writeDetailTree(roots);
-                writeSummaryTree(roots);
+                writeDetailTree(basePath, roots);
+                writeSummaryTree(basePath, roots);
             } catch (IOException e) {
                 throw UncheckedException.throwAsUncheckedException(e);
             }
@@ -178,7 +234,56 @@ private void write(SerializedOperation operation) {
         }
     }
 
-    private void writeDetailTree(List<BuildOperationRecord> roots) throws IOException {
+    /**
+     * Converts the binary log for the given base path into the JSON log and trees, as written by the default format, plus a Chrome trace.
+     */
+    public static void convertBinaryLog(String basePath) {
+        try {
+            File logFile = logFile(basePath);
+            try (
+                OutputStream logOutputStream = new BufferedOutputStream(new FileOutputStream(logFile));
+                Writer traceWriter = Files.asCharSink(file(basePath, "-trace.json"), Charsets.UTF_8).openBufferedStream()
+            ) {
+                ChromeTraceWriter chromeTraceWriter = new ChromeTraceWriter(traceWriter);
+                BinaryBuildOperationLog.read(binaryLogFile(basePath), new BinaryBuildOperationLog.Visitor() {
+                    @Override
+                    public void started(SerializedOperationStart start, long threadId) {
+                        writeLine(start);
+                        chromeTraceWriter.started(start, threadId);
+                    }
+
+                    @Override
+                    public void progress(SerializedOperationProgress progress) {
+                        writeLine(progress);
+                    }
+
+                    @Override
+                    public void finished(SerializedOperationFinish finish) {
+                        writeLine(finish);
+                        chromeTraceWriter.finished(finish);
+                    }
+
+                    private void writeLine(SerializedOperation operation) {
+                        try {
+                            logOutputStream.write(JsonOutput.toJson(operation.toMap()).getBytes(StandardCharsets.UTF_8));
+                            logOutputStream.write(NEWLINE);
+                        } catch (IOException e) {
+                            throw UncheckedException.throwAsUncheckedException(e);
+                        }
+                    }
+                });
+                chromeTraceWriter.complete();
+            }
+
+            List<BuildOperationRecord> roots = readLogToTreeRoots(logFile);
+            writeDetailTree(basePath, roots);
+            writeSummaryTree(basePath, roots);
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    private static void writeDetailTree(String basePath, List<BuildOperationRecord> roots) throws IOException {
         try {
             String rawJson = JsonOutput.toJson(BuildOperationTree.serialize(roots));
             String prettyJson = JsonOutput.prettyPrint(rawJson);
@@ -188,7 +293,7 @@ private void writeDetailTree(List<BuildOperationRecord> roots) throws IOExceptio
         }
     }
 
-    private void writeSummaryTree(final List<BuildOperationRecord> roots) throws IOException {
+    private static void writeSummaryTree(String basePath, final List<BuildOperationRecord> roots) throws IOException {
         Files.asCharSink(file(basePath, "-tree.txt"), Charsets.UTF_8).writeLines(new Iterable<String>() {
             @Override
             @Nonnull
@@ -274,6 +379,9 @@ public void remove() {
 
     public static BuildOperationTree read(String basePath) {
         File logFile = logFile(basePath);
+        if (!logFile.isFile() && binaryLogFile(basePath).isFile()) {
+            convertBinaryLog(basePath);
+        }
         List<BuildOperationRecord> roots = readLogToTreeRoots(logFile);
         return new BuildOperationTree(roots);
     }
@@ -369,6 +477,10 @@ private static File logFile(String basePath) {
         return file(basePath, "-log.txt");
     }
 
+    private static File binaryLogFile(String basePath) {
+        return file(basePath, "-log.bin");
+    }
+
     private static File file(String base, String suffix) {
         return new File((base == null || base.trim().isEmpty() ? "operations" : base) + suffix).getAbsoluteFile();
     }
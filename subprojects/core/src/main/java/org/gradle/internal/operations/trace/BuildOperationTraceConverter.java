@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+/**
+ * Converts a binary build operation log, written with `-Dorg.gradle.internal.operations.trace.format=binary`, into the JSON log, trees and Chrome trace.
+ *
+ * Usage: {@code java -cp «gradle-core and its dependencies» org.gradle.internal.operations.trace.BuildOperationTraceConverter «path-base»}
+ *
+ * @see BuildOperationTrace
+ */
+public class BuildOperationTraceConverter {
+
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.err.println("Usage: BuildOperationTraceConverter <path-base>");
+            System.exit(1);
+        }
+        BuildOperationTrace.convertBinaryLog(args[0]);
+    }
+
+}
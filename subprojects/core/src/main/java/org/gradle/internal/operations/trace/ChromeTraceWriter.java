@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace;
+
+import groovy.json.JsonOutput;
+import org.gradle.internal.UncheckedException;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes build operations as complete events in the Chrome trace event format, one track per thread that started operations.
+ */
+class ChromeTraceWriter {
+
+    private final Writer writer;
+    private final Map<Long, PendingOperation> pending = new HashMap<>();
+    private boolean hasEvents;
+
+    ChromeTraceWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    void started(SerializedOperationStart start, long threadId) {
+        pending.put(start.id, new PendingOperation(start, threadId));
+    }
+
+    void finished(SerializedOperationFinish finish) {
+        PendingOperation operation = pending.remove(finish.id);
+        if (operation == null) {
+            return;
+        }
+        SerializedOperationStart start = operation.start;
+
+        Map<String, Object> args = new LinkedHashMap<>();
+        args.put("id", start.id);
+        if (start.detailsClassName != null) {
+            args.put("detailsClassName", start.detailsClassName);
+        }
+        if (finish.failureMsg != null) {
+            args.put("failure", finish.failureMsg);
+        }
+
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("name", start.displayName);
+        event.put("ph", "X");
+        event.put("ts", start.startTime * 1000);
+        event.put("dur", (finish.endTime - start.startTime) * 1000);
+        event.put("pid", 1);
+        event.put("tid", operation.threadId);
+        event.put("args", args);
+
+        try {
+            writer.write(hasEvents ? ",\n" : "{\"traceEvents\":[\n");
+            writer.write(JsonOutput.toJson(event));
+            hasEvents = true;
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    void complete() throws IOException {
+        writer.write(hasEvents ? "\n]}\n" : "{\"traceEvents\":[]}\n");
+    }
+
+    private static class PendingOperation {
+        final SerializedOperationStart start;
+        final long threadId;
+
+        PendingOperation(SerializedOperationStart start, long threadId) {
+            this.start = start;
+            this.threadId = threadId;
+        }
+    }
+}
@@ -20,6 +20,7 @@
 import org.gradle.internal.operations.BuildOperationDescriptor;
 import org.gradle.internal.operations.OperationStartEvent;
 
+import javax.annotation.Nullable;
 import java.util.Map;
 
 import static org.gradle.internal.operations.trace.BuildOperationTrace.toSerializableModel;
@@ -44,6 +45,15 @@ class SerializedOperationStart implements SerializedOperation {
         this.detailsClassName = details == null ? null : descriptor.getDetails().getClass().getName();
     }
 
+    SerializedOperationStart(long id, @Nullable Long parentId, String displayName, long startTime, @Nullable String detailsClassName) {
+        this.id = id;
+        this.parentId = parentId;
+        this.displayName = displayName;
+        this.startTime = startTime;
+        this.details = null;
+        this.detailsClassName = detailsClassName;
+    }
+
     SerializedOperationStart(Map<String, ?> map) {
         this.id = ((Integer) map.get("id")).longValue();
         Integer parentId = (Integer) map.get("parentId");
@@ -64,6 +74,8 @@ class SerializedOperationStart implements SerializedOperation {
 
         if (details != null) {
             map.put("details", details);
+        }
+        if (detailsClassName != null) {
             map.put("detailsClassName", detailsClassName);
         }
 
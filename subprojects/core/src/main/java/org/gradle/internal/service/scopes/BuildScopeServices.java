@@ -84,6 +84,7 @@
 import org.gradle.cache.scopes.GlobalScopedCache;
 import org.gradle.caching.internal.BuildCacheServices;
 import org.gradle.configuration.BuildOperationFiringProjectsPreparer;
+import org.gradle.configuration.BuildScriptPrecompiler;
 import org.gradle.configuration.BuildTreePreparingProjectsPreparer;
 import org.gradle.configuration.CompileOperationFactory;
 import org.gradle.configuration.DefaultInitScriptProcessor;
@@ -548,7 +549,8 @@ protected ProjectsPreparer createBuildConfigurer(
         BuildLoader buildLoader,
         ListenerManager listenerManager,
         BuildOperationExecutor buildOperationExecutor,
-        BuildModelParameters buildModelParameters
+        BuildModelParameters buildModelParameters,
+        BuildScriptPrecompiler buildScriptPrecompiler
     ) {
         ModelConfigurationListener modelConfigurationListener = listenerManager.getBroadcaster(ModelConfigurationListener.class);
         return new BuildOperationFiringProjectsPreparer(
@@ -561,10 +563,21 @@ protected ProjectsPreparer createBuildConfigurer(
                     buildStateRegistry),
                 buildLoader,
                 inclusionCoordinator,
-                buildSourceBuilder),
+                buildSourceBuilder,
+                buildScriptPrecompiler),
             buildOperationExecutor);
     }
 
+    protected BuildScriptPrecompiler createBuildScriptPrecompiler(
+        CompileOperationFactory compileOperationFactory,
+        CrossBuildInMemoryCachingScriptClassCache scriptClassCache,
+        FileCacheBackedScriptClassCompiler scriptClassCompiler,
+        BuildOperationExecutor buildOperationExecutor,
+        BuildModelParameters buildModelParameters
+    ) {
+        return new BuildScriptPrecompiler(compileOperationFactory, scriptClassCache, scriptClassCompiler, buildOperationExecutor, buildModelParameters);
+    }
+
     protected BuildWorkPreparer createWorkPreparer(BuildOperationExecutor buildOperationExecutor, ExecutionPlanFactory executionPlanFactory) {
         return new BuildOperationFiringBuildWorkPreparer(
             buildOperationExecutor,
@@ -78,6 +78,30 @@ class DefaultResourceSnapshotterCacheServiceTest extends Specification {
         0 * _
     }
 
+    def "caches zip entry results by entry key"() {
+        def entryKey = TestHashCodes.hashCodeFrom(789)
+        def expectedHash = TestHashCodes.hashCodeFrom(123)
+        def hashedEntries = 0
+        def hasher = { hashedEntries++; expectedHash }
+
+        when:
+        def actualHash = snapshotterCache.hashZipEntry(path, entryKey, hasher, configurationHash)
+        then:
+        actualHash == expectedHash
+        hashedEntries == 1
+
+        when:
+        actualHash = snapshotterCache.hashZipEntry("other", entryKey, hasher, configurationHash)
+        then:
+        actualHash == expectedHash
+        hashedEntries == 1
+
+        when:
+        snapshotterCache.hashZipEntry(path, TestHashCodes.hashCodeFrom(790), hasher, configurationHash)
+        then:
+        hashedEntries == 2
+    }
+
     private HashCode getConfigurationHash() {
         def hasher = Hashing.newHasher()
         hasher.putString(delegate.getClass().getName())
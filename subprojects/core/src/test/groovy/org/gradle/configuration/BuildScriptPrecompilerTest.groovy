@@ -0,0 +1,148 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.configuration
+
+import org.gradle.api.internal.GradleInternal
+import org.gradle.api.internal.initialization.ClassLoaderScope
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectScript
+import org.gradle.api.internal.project.ProjectState
+import org.gradle.groovy.scripts.ScriptSource
+import org.gradle.groovy.scripts.internal.CompileOperation
+import org.gradle.groovy.scripts.internal.CrossBuildInMemoryCachingScriptClassCache
+import org.gradle.groovy.scripts.internal.ScriptClassCompiler
+import org.gradle.internal.build.BuildProjectRegistry
+import org.gradle.internal.build.BuildState
+import org.gradle.internal.buildtree.BuildModelParameters
+import org.gradle.internal.management.DependencyResolutionManagementInternal
+import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.internal.resource.TextResource
+import org.gradle.internal.service.ServiceRegistry
+import spock.lang.Specification
+
+class BuildScriptPrecompilerTest extends Specification {
+    final compileOperationFactory = Stub(CompileOperationFactory)
+    final scriptClassCache = Mock(CrossBuildInMemoryCachingScriptClassCache)
+    final scriptClassCompiler = Stub(ScriptClassCompiler)
+    final buildOperationExecutor = new TestBuildOperationExecutor()
+    final buildModelParameters = Stub(BuildModelParameters)
+    final precompiler = new BuildScriptPrecompiler(compileOperationFactory, scriptClassCache, scriptClassCompiler, buildOperationExecutor, buildModelParameters)
+
+    final baseScope = Stub(ClassLoaderScope)
+    final operation = Stub(CompileOperation)
+    final projects = new LinkedHashSet<ProjectState>()
+    final gradle = Stub(GradleInternal) {
+        getOwner() >> Stub(BuildState) {
+            getProjects() >> Stub(BuildProjectRegistry) {
+                getAllProjects() >> projects
+            }
+        }
+        getServices() >> Stub(ServiceRegistry) {
+            get(DependencyResolutionManagementInternal) >> Stub(DependencyResolutionManagementInternal) {
+                getDependenciesModelBuilders() >> []
+            }
+        }
+        isRootBuild() >> true
+    }
+
+    def setup() {
+        _ * compileOperationFactory.getPluginsBlockCompileOperation(_) >> operation
+    }
+
+    def "compiles the first pass of the Groovy build scripts of all projects"() {
+        def root = project("build.gradle")
+        def child = project("child/build.gradle")
+
+        when:
+        precompiler.precompileBuildScripts(gradle)
+
+        then:
+        1 * scriptClassCache.precompile(root, baseScope, operation, ProjectScript, _, scriptClassCompiler)
+        1 * scriptClassCache.precompile(child, baseScope, operation, ProjectScript, _, scriptClassCompiler)
+        0 * scriptClassCache._
+        buildOperationExecutor.log.records*.descriptor*.displayName == ["Precompile build.gradle", "Precompile child/build.gradle"]
+    }
+
+    def "ignores missing and Kotlin build scripts"() {
+        def root = project("build.gradle")
+        def other = project("other/build.gradle")
+        project("child/build.gradle.kts")
+        project("missing/build.gradle", true)
+
+        when:
+        precompiler.precompileBuildScripts(gradle)
+
+        then:
+        1 * scriptClassCache.precompile(root, _, _, _, _, _)
+        1 * scriptClassCache.precompile(other, _, _, _, _, _)
+        0 * scriptClassCache._
+    }
+
+    def "leaves a script which fails to compile to the configuration of its project"() {
+        def root = project("build.gradle")
+        def child = project("child/build.gradle")
+
+        when:
+        precompiler.precompileBuildScripts(gradle)
+
+        then:
+        1 * scriptClassCache.precompile(root, _, _, _, _, _) >> { throw new RuntimeException("broken") }
+        1 * scriptClassCache.precompile(child, _, _, _, _, _)
+        noExceptionThrown()
+    }
+
+    def "does not compile scripts ahead of configuration when configuring on demand"() {
+        _ * buildModelParameters.configureOnDemand >> true
+        project("build.gradle")
+        project("child/build.gradle")
+
+        when:
+        precompiler.precompileBuildScripts(gradle)
+
+        then:
+        0 * scriptClassCache._
+    }
+
+    def "does not compile a single script ahead of configuration"() {
+        project("build.gradle")
+
+        when:
+        precompiler.precompileBuildScripts(gradle)
+
+        then:
+        0 * scriptClassCache._
+    }
+
+    private ScriptSource project(String buildFile, boolean missing = false) {
+        def source = Stub(ScriptSource) {
+            getFileName() >> buildFile
+            getShortDisplayName() >> buildFile
+            getDisplayName() >> buildFile
+            getResource() >> Stub(TextResource) {
+                getHasEmptyContent() >> missing
+            }
+        }
+        def project = Stub(ProjectInternal) {
+            getBuildScriptSource() >> source
+            getBaseClassLoaderScope() >> baseScope
+        }
+        projects << Stub(ProjectState) {
+            getMutableModel() >> project
+        }
+        return source
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.execution
+
+import org.gradle.api.internal.project.ProjectInternal
+import org.gradle.api.internal.project.ProjectState
+import org.gradle.initialization.BuildCancellationToken
+import org.gradle.internal.buildtree.BuildModelParameters
+import org.gradle.internal.operations.TestBuildOperationExecutor
+import org.gradle.internal.resources.ProjectLeaseRegistry
+import spock.lang.Specification
+
+class TaskPathProjectEvaluatorTest extends Specification {
+    final cancellationToken = Stub(BuildCancellationToken)
+    final buildModelParameters = Stub(BuildModelParameters)
+    final projectLeaseRegistry = Stub(ProjectLeaseRegistry)
+    final buildOperationExecutor = new TestBuildOperationExecutor()
+    final evaluator = new TaskPathProjectEvaluator(cancellationToken, buildModelParameters, buildOperationExecutor, projectLeaseRegistry)
+
+    final leafState = Mock(ProjectState) {
+        _ * getChildProjects() >> ([] as Set)
+    }
+    final childState = Mock(ProjectState) {
+        _ * getChildProjects() >> ([leafState] as Set)
+    }
+    final otherChildState = Mock(ProjectState) {
+        _ * getChildProjects() >> ([] as Set)
+    }
+    final rootState = Mock(ProjectState) {
+        _ * getChildProjects() >> ([childState, otherChildState] as Set)
+    }
+    final leaf = project(leafState)
+    final child = project(childState)
+    final otherChild = project(otherChildState)
+    final root = project(rootState, [child, otherChild, leaf])
+
+    def "configures subprojects one after another by default"() {
+        _ * buildModelParameters.parallelProjectConfiguration >> false
+        _ * projectLeaseRegistry.allowsParallelExecution >> true
+
+        when:
+        evaluator.configureHierarchy(root)
+
+        then:
+        1 * rootState.ensureConfigured()
+
+        then:
+        1 * childState.ensureConfigured()
+
+        then:
+        1 * otherChildState.ensureConfigured()
+
+        then:
+        1 * leafState.ensureConfigured()
+        buildOperationExecutor.log.records.empty
+    }
+
+    def "configures subprojects level by level when configuring projects in parallel"() {
+        _ * buildModelParameters.parallelProjectConfiguration >> true
+        _ * projectLeaseRegistry.allowsParallelExecution >> true
+
+        when:
+        evaluator.configureHierarchy(root)
+
+        then:
+        1 * rootState.ensureConfigured()
+
+        then:
+        1 * childState.ensureConfigured()
+        1 * otherChildState.ensureConfigured()
+
+        then:
+        1 * leafState.ensureConfigured()
+        buildOperationExecutor.log.records.size() == 3
+    }
+
+    def "configures subprojects one after another when projects cannot be accessed in parallel"() {
+        _ * buildModelParameters.parallelProjectConfiguration >> true
+        _ * projectLeaseRegistry.allowsParallelExecution >> false
+
+        when:
+        evaluator.configureHierarchy(root)
+
+        then:
+        1 * rootState.ensureConfigured()
+        1 * childState.ensureConfigured()
+        1 * otherChildState.ensureConfigured()
+        1 * leafState.ensureConfigured()
+        buildOperationExecutor.log.records.empty
+    }
+
+    private ProjectInternal project(ProjectState state, List<ProjectInternal> subprojects = []) {
+        def project = Stub(ProjectInternal)
+        _ * project.owner >> state
+        _ * project.subprojects >> (subprojects as Set)
+        return project
+    }
+}
@@ -407,6 +407,41 @@ class DefaultCachedClasspathTransformerTest extends ConcurrentSpec {
         0 * _
     }
 
+    def "reuses file instrumented from another file with the same content"() {
+        given:
+        def transform = Mock(CachedClasspathTransformer.Transform)
+        def file = testDir.file("thing.jar")
+        jar(file)
+        def file2 = testDir.file("thing2.jar")
+        jar(file2)
+        def cachedFile = testDir.file("cached/90b54e71cfa1cf2192b11e3e12e93caa/thing.jar")
+        def cachedFile2 = testDir.file("cached/90b54e71cfa1cf2192b11e3e12e93caa/thing2.jar")
+
+        when:
+        def cachedClasspath = transformer.transform(DefaultClassPath.of(file), BuildLogic, transform)
+
+        then:
+        cachedClasspath.asFiles == [cachedFile]
+
+        and:
+        1 * transform.applyConfigurationTo(_) >> { Hasher hasher -> hasher.putInt(123) }
+        1 * transform.apply(_, _) >> { entry, visitor -> Pair.of(entry.path, visitor) }
+        1 * fileAccessTimeJournal.setLastAccessTime(cachedFile.parentFile, _)
+        0 * _
+
+        when:
+        def cachedClasspath2 = transformer.transform(DefaultClassPath.of(file2), BuildLogic, transform)
+
+        then:
+        cachedClasspath2.asFiles == [cachedFile2]
+        cachedFile2.bytes == cachedFile.bytes
+
+        and:
+        1 * transform.applyConfigurationTo(_) >> { Hasher hasher -> hasher.putInt(123) }
+        1 * fileAccessTimeJournal.setLastAccessTime(cachedFile2.parentFile, _)
+        0 * _
+    }
+
     def "transformation keeps the compression level of archive entries"() {
         given:
         def file = testDir.file("thing.jar")
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.operations.trace
+
+import groovy.json.JsonSlurper
+import org.gradle.internal.operations.BuildOperationDescriptor
+import org.gradle.internal.operations.OperationFinishEvent
+import org.gradle.internal.operations.OperationIdentifier
+import org.gradle.internal.operations.OperationProgressEvent
+import org.gradle.internal.operations.OperationStartEvent
+import org.gradle.test.fixtures.ConcurrentTestUtil
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class BinaryBuildOperationLogTest extends Specification {
+    @Rule
+    final TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    // Timestamps are milliseconds since the epoch
+    def time = 1_600_000_000_000L
+    def parent = BuildOperationDescriptor.displayName("parent").build(new OperationIdentifier(1), null)
+    def child = BuildOperationDescriptor.displayName("child").details(new Object()).build(new OperationIdentifier(2), new OperationIdentifier(1))
+
+    def "converts binary log into operation tree and Chrome trace"() {
+        def basePath = tmpDir.file("operations").absolutePath
+
+        given:
+        def log = new BinaryBuildOperationLog(tmpDir.file("operations-log.bin"))
+        log.started(parent, new OperationStartEvent(time + 100))
+        log.started(child, new OperationStartEvent(time + 110))
+        log.progress(child.id, new OperationProgressEvent(time + 115, "progress"))
+        log.finished(child, new OperationFinishEvent(time + 110, time + 120, new RuntimeException("broken"), null))
+        log.finished(parent, new OperationFinishEvent(time + 100, time + 130, null, "result"))
+        log.close()
+
+        when:
+        def tree = BuildOperationTrace.read(basePath)
+
+        then:
+        tree.roots.size() == 1
+        def root = tree.roots[0]
+        root.displayName == "parent"
+        root.startTime == time + 100
+        root.endTime == time + 130
+        root.failure == null
+        root.children.size() == 1
+        def nested = root.children[0]
+        nested.displayName == "child"
+        nested.parentId == 1
+        nested.failure == new RuntimeException("broken").toString()
+        nested.progress.size() == 1
+        nested.progress[0].time == time + 115
+
+        and:
+        def trace = new JsonSlurper().parse(tmpDir.file("operations-trace.json"))
+        trace.traceEvents*.name == ["child", "parent"]
+        trace.traceEvents*.ts == [(time + 110) * 1000, (time + 100) * 1000]
+        trace.traceEvents*.dur == [10_000, 30_000]
+        trace.traceEvents*.tid.unique() == [Thread.currentThread().id]
+    }
+
+    def "reads events up to a truncated last frame"() {
+        def file = tmpDir.file("operations-log.bin")
+
+        given:
+        // Each event goes into a frame of its own
+        def log = new BinaryBuildOperationLog(file, 1, 1000)
+        log.started(parent, new OperationStartEvent(time + 100))
+        log.started(child, new OperationStartEvent(time + 110))
+        log.close()
+        def bytes = file.bytes
+        file.bytes = bytes[0..<(bytes.length - 2)] as byte[]
+
+        expect:
+        readEvents(file) == ["start parent"]
+    }
+
+    def "reads events reported by different threads in the order they were reported in"() {
+        def file = tmpDir.file("operations-log.bin")
+
+        given:
+        def log = new BinaryBuildOperationLog(file)
+        log.started(parent, new OperationStartEvent(time + 100))
+        def worker = new Thread({
+            log.started(child, new OperationStartEvent(time + 110))
+            log.finished(child, new OperationFinishEvent(time + 110, time + 120, null, null))
+        })
+        worker.start()
+        worker.join()
+        log.finished(parent, new OperationFinishEvent(time + 100, time + 130, null, null))
+        log.close()
+
+        expect:
+        readEvents(file) == ["start parent", "start child", "finish 2", "finish 1"]
+    }
+
+    def "writes buffered events to the file before the log is closed"() {
+        def file = tmpDir.file("operations-log.bin")
+
+        given:
+        def log = new BinaryBuildOperationLog(file, 64 * 1024, 10)
+
+        when:
+        log.started(parent, new OperationStartEvent(time + 100))
+
+        then:
+        ConcurrentTestUtil.poll {
+            assert readEvents(file) == ["start parent"]
+        }
+
+        cleanup:
+        log.close()
+    }
+
+    private static List<String> readEvents(File file) {
+        def events = []
+        BinaryBuildOperationLog.read(file, new BinaryBuildOperationLog.Visitor() {
+            void started(SerializedOperationStart start, long threadId) {
+                events << "start ${start.displayName}".toString()
+            }
+
+            void progress(SerializedOperationProgress progress) {}
+
+            void finished(SerializedOperationFinish finish) {
+                events << "finish ${finish.id}".toString()
+            }
+        })
+        return events
+    }
+}
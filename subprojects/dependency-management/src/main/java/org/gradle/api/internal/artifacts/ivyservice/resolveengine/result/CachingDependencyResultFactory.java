@@ -40,10 +40,7 @@ public class CachingDependencyResultFactory {
     public UnresolvedDependencyResult createUnresolvedDependency(ComponentSelector requested, ResolvedComponentResult from, boolean constraint,
                                                                  ComponentSelectionReason reason, ModuleVersionResolveException failure) {
         List<Object> key = asList(requested, from, constraint);
-        if (!unresolvedDependencies.containsKey(key)) {
-            unresolvedDependencies.put(key, new DefaultUnresolvedDependencyResult(requested, constraint, reason, from, failure));
-        }
-        return unresolvedDependencies.get(key);
+        return unresolvedDependencies.computeIfAbsent(key, k -> new DefaultUnresolvedDependencyResult(requested, constraint, reason, from, failure));
     }
 
     public ResolvedDependencyResult createResolvedDependency(ComponentSelector requested,
@@ -52,9 +49,6 @@ public ResolvedDependencyResult createResolvedDependency(ComponentSelector reque
                                                              ResolvedVariantResult resolvedVariant,
                                                              boolean constraint) {
         List<Object> key = asList(requested, from, selected, resolvedVariant, constraint);
-        if (!resolvedDependencies.containsKey(key)) {
-            resolvedDependencies.put(key, new DefaultResolvedDependencyResult(requested, constraint, selected, resolvedVariant, from));
-        }
-        return resolvedDependencies.get(key);
+        return resolvedDependencies.computeIfAbsent(key, k -> new DefaultResolvedDependencyResult(requested, constraint, selected, resolvedVariant, from));
     }
 }
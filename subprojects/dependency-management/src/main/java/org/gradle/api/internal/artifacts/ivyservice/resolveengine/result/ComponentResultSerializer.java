@@ -55,6 +55,10 @@ void reset() {
         resolvedVariantResultSerializer.reset();
     }
 
+    boolean isReset() {
+        return resolvedVariantResultSerializer.isReset();
+    }
+
     @Override
     public ResolvedGraphComponent read(Decoder decoder) throws IOException {
         long resultId = decoder.readSmallLong();
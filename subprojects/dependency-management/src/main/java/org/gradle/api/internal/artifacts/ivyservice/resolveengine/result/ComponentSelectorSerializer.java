@@ -58,6 +58,10 @@ void reset() {
         attributeContainerSerializer.reset();
     }
 
+    boolean isReset() {
+        return attributeContainerSerializer.isReset();
+    }
+
     @Override
     public ComponentSelector read(Decoder decoder) throws IOException {
         byte id = decoder.readByte();
@@ -264,6 +268,10 @@ public void reset() {
             readIndex.clear();
         }
 
+        boolean isReset() {
+            return writeIndex.isEmpty() && readIndex.isEmpty();
+        }
+
         @Override
         public ImmutableAttributes read(Decoder decoder) throws IOException {
             boolean empty = decoder.readBoolean();
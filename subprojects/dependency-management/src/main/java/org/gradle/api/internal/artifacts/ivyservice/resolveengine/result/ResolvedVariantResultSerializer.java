@@ -110,4 +110,8 @@ void reset() {
         written.clear();
         read.clear();
     }
+
+    boolean isReset() {
+        return written.isEmpty() && read.isEmpty();
+    }
 }
@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.artifacts.ivyservice.resolveengine.result;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Lists;
 import org.gradle.api.artifacts.UnresolvedDependency;
 import org.gradle.api.artifacts.component.ComponentSelector;
@@ -93,10 +94,22 @@ public StreamingResolutionResultBuilder(BinaryStore store,
 
     public ResolutionResult complete(Set<UnresolvedDependency> extraFailures) {
         BinaryStore.BinaryData data = store.done();
+        // The indexes built while writing reference every variant and attribute container of the graph,
+        // release them now that the graph has been written
+        componentSelectorSerializer.reset();
+        componentResultSerializer.reset();
         RootFactory rootSource = new RootFactory(data, failures, cache, componentSelectorSerializer, dependencyResultSerializer, componentResultSerializer, attributeContainerSerializer, extraFailures);
         return new DefaultResolutionResult(rootSource, rootAttributes);
     }
 
+    /**
+     * Returns whether the serializers hold no indexes of variants and attribute containers that were written or loaded.
+     */
+    @VisibleForTesting
+    boolean isSerializerStateReset() {
+        return componentSelectorSerializer.isReset() && componentResultSerializer.isReset();
+    }
+
     @Override
     public void start(final RootGraphNode root) {
         rootAttributes = desugaring.desugar(root.getMetadata().getAttributes());
@@ -189,6 +202,10 @@ public ResolvedComponentResult create() {
                     try {
                         return data.read(this::deserialize);
                     } finally {
+                        // Don't let the read indexes retain the graph once it has been loaded, so that
+                        // the cache is the only thing keeping the (potentially huge) result in memory
+                        componentSelectorSerializer.reset();
+                        componentResultSerializer.reset();
                         try {
                             data.close();
                         } catch (IOException e) {
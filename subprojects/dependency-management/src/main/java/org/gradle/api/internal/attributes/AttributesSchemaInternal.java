@@ -33,4 +33,9 @@ public interface AttributesSchemaInternal extends DescribableAttributesSchema {
     CompatibilityRule<Object> compatibilityRules(Attribute<?> attribute);
 
     DisambiguationRule<Object> disambiguationRules(Attribute<?> attribute);
+
+    /**
+     * Returns a number which increases whenever attributes or rules are added to this schema, or its attribute precedence changes.
+     */
+    long getRulesVersion();
 }
@@ -25,8 +25,8 @@
 import java.util.Comparator;
 
 public class DefaultAttributeMatchingStrategy<T> implements AttributeMatchingStrategy<T> {
-    private final CompatibilityRuleChain<T> compatibilityRules;
-    private final DisambiguationRuleChain<T> disambiguationRules;
+    private final DefaultCompatibilityRuleChain<T> compatibilityRules;
+    private final DefaultDisambiguationRuleChain<T> disambiguationRules;
 
     public DefaultAttributeMatchingStrategy(InstantiatorFactory instantiatorFactory, IsolatableFactory isolatableFactory) {
         compatibilityRules = Cast.uncheckedCast(instantiatorFactory.decorateLenient().newInstance(DefaultCompatibilityRuleChain.class, instantiatorFactory.inject(), isolatableFactory));
@@ -57,4 +57,11 @@ public void ordered(boolean pickLast, Comparator<T> comparator) {
             disambiguationRules.pickFirst(comparator);
         }
     }
+
+    /**
+     * Returns the number of compatibility and disambiguation rules of this strategy, which changes whenever a rule is added.
+     */
+    public int getRuleCount() {
+        return compatibilityRules.getRuleCount() + disambiguationRules.getRuleCount();
+    }
 }
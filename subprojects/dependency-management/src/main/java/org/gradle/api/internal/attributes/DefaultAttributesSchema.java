@@ -16,6 +16,8 @@
 
 package org.gradle.api.internal.attributes;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.gradle.api.Action;
 import org.gradle.api.attributes.Attribute;
 import org.gradle.api.attributes.AttributeMatchingStrategy;
@@ -49,7 +51,7 @@
 public class DefaultAttributesSchema implements AttributesSchemaInternal, AttributesSchema {
     private final ComponentAttributeMatcher componentAttributeMatcher;
     private final InstantiatorFactory instantiatorFactory;
-    private final Map<Attribute<?>, AttributeMatchingStrategy<?>> strategies = new HashMap<>();
+    private final Map<Attribute<?>, DefaultAttributeMatchingStrategy<?>> strategies = new HashMap<>();
     private final Map<String, Attribute<?>> attributesByName = new HashMap<>();
 
     private final DefaultAttributeMatcher matcher;
@@ -57,6 +59,13 @@ public class DefaultAttributesSchema implements AttributesSchemaInternal, Attrib
     private final Map<ExtraAttributesEntry, Attribute<?>[]> extraAttributesCache = new HashMap<>();
     private final List<AttributeDescriber> consumerAttributeDescribers = new ArrayList<>();
     private final Set<Attribute<?>> precedence = new LinkedHashSet<>();
+    private long precedenceChanges;
+
+    /**
+     * This schema merged with each producer schema, so that the results which the matcher caches per merged schema and rules version
+     * are shared by all selections against the same producer. A merged schema is dropped once no matcher or cached result refers to it anymore.
+     */
+    private final Cache<AttributesSchemaInternal, AttributeSelectionSchema> mergedSchemas = CacheBuilder.newBuilder().weakValues().build();
 
     public DefaultAttributesSchema(ComponentAttributeMatcher componentAttributeMatcher, InstantiatorFactory instantiatorFactory, IsolatableFactory isolatableFactory) {
         this.componentAttributeMatcher = componentAttributeMatcher;
@@ -81,7 +90,7 @@ public <T> AttributeMatchingStrategy<T> attribute(Attribute<T> attribute) {
 
     @Override
     public <T> AttributeMatchingStrategy<T> attribute(Attribute<T> attribute, Action<? super AttributeMatchingStrategy<T>> configureAction) {
-        AttributeMatchingStrategy<T> strategy = Cast.uncheckedCast(strategies.get(attribute));
+        DefaultAttributeMatchingStrategy<T> strategy = Cast.uncheckedCast(strategies.get(attribute));
         if (strategy == null) {
             strategy = Cast.uncheckedCast(instantiatorFactory.decorateLenient().newInstance(DefaultAttributeMatchingStrategy.class, instantiatorFactory, isolatableFactory));
             strategies.put(attribute, strategy);
@@ -104,7 +113,7 @@ public boolean hasAttribute(Attribute<?> key) {
     }
 
     AttributeSelectionSchema mergeWith(AttributesSchemaInternal producerSchema) {
-        return new MergedSchema(producerSchema);
+        return mergedSchemas.asMap().computeIfAbsent(producerSchema, MergedSchema::new);
     }
 
     @Override
@@ -135,6 +144,16 @@ public DisambiguationRule<Object> disambiguationRules(Attribute<?> attribute) {
         return EmptySchema.INSTANCE.disambiguationRules(attribute);
     }
 
+    @Override
+    public long getRulesVersion() {
+        // Attributes and rules can only be added, so their count together with the precedence changes increases with every change
+        long version = strategies.size() + precedenceChanges;
+        for (DefaultAttributeMatchingStrategy<?> strategy : strategies.values()) {
+            version += strategy.getRuleCount();
+        }
+        return version;
+    }
+
     @Override
     public List<AttributeDescriber> getConsumerDescribers() {
         return consumerAttributeDescribers;
@@ -147,6 +166,7 @@ public void addConsumerDescriber(AttributeDescriber describer) {
 
     @Override
     public void attributeDisambiguationPrecedence(Attribute<?>... attributes) {
+        precedenceChanges++;
         for (Attribute<?> attribute : attributes) {
             if (!precedence.add(attribute)) {
                 throw new IllegalArgumentException(String.format("Attribute '%s' precedence has already been set.", attribute.getName()));
@@ -156,6 +176,7 @@ public void attributeDisambiguationPrecedence(Attribute<?>... attributes) {
 
     @Override
     public void setAttributeDisambiguationPrecedence(List<Attribute<?>> attributes) {
+        precedenceChanges++;
         precedence.clear();
         attributeDisambiguationPrecedence(attributes.toArray(new Attribute<?>[0]));
     }
@@ -304,6 +325,12 @@ public Attribute<?>[] collectExtraAttributes(ImmutableAttributes[] candidateAttr
             return attributes;
         }
 
+        @Override
+        public long getRulesVersion() {
+            // Both versions only increase, so their sum increases whenever either schema changes
+            return DefaultAttributesSchema.this.getRulesVersion() + producerSchema.getRulesVersion();
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) {
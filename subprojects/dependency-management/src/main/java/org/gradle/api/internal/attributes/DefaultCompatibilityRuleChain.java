@@ -80,6 +80,13 @@ public boolean doesSomething() {
         return !rules.isEmpty();
     }
 
+    /**
+     * Returns the number of rules in this chain. As rules can only be added, the count changes whenever the chain changes.
+     */
+    public int getRuleCount() {
+        return rules.size();
+    }
+
     private static class ExceptionHandler<T> implements InstantiatingAction.ExceptionHandler<CompatibilityCheckDetails<T>> {
 
         private final Class<? extends AttributeCompatibilityRule<T>> rule;
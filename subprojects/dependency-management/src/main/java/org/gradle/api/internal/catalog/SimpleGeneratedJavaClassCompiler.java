@@ -111,6 +111,8 @@ private static List<String> buildOptions(File dstDir, ClassPath classPath) {
         options.add("1.8");
         options.add("-target");
         options.add("1.8");
+        // Generated accessors never use annotation processing: skip looking up processors on the classpath
+        options.add("-proc:none");
         options.add("-classpath");
         String cp = classPath.getAsFiles().stream().map(File::getAbsolutePath).collect(Collectors.joining(File.pathSeparator));
         options.add(cp);
@@ -52,6 +52,12 @@ public interface AttributeSelectionSchema {
      */
     Attribute<?>[] collectExtraAttributes(ImmutableAttributes[] candidates, ImmutableAttributes requested);
 
+    /**
+     * Returns a number which increases whenever the attributes, rules or attribute precedence of this schema change.
+     * Results computed against this schema can be cached together with this number.
+     */
+    long getRulesVersion();
+
     class PrecedenceResult {
         private final List<Integer> sortedIndices;
         private final Collection<Integer> unsortedIndices;
@@ -15,6 +15,8 @@
  */
 package org.gradle.internal.component.model;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
@@ -48,6 +50,19 @@ public class ComponentAttributeMatcher {
      */
     private final Map<CachedQuery, int[]> cachedQueries = Maps.newConcurrentMap();
 
+    private static final int MAX_CACHED_COMPATIBILITY_CHECKS = 10000;
+
+    /**
+     * Compatibility checks are repeated for the same candidate and requested attributes for every
+     * component and artifact set being resolved, and may run user provided compatibility rules.
+     * As attributes are interned and the schema merged with a given producer schema is reused,
+     * the result of the check is cached per schema, rules version of the schema and pair of attributes.
+     * Rules can still be added to a schema after it has been used, which changes its rules version.
+     */
+    private final Cache<CachedCompatibilityQuery, Boolean> cachedCompatibilityChecks = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_COMPATIBILITY_CHECKS)
+        .build();
+
     /**
      * Determines whether the given candidate is compatible with the requested criteria, according to the given schema.
      */
@@ -59,6 +74,11 @@ public boolean isMatching(AttributeSelectionSchema schema, AttributeContainerInt
         ImmutableAttributes requestedAttributes = requested.asImmutable();
         ImmutableAttributes candidateAttributes = candidate.asImmutable();
 
+        CachedCompatibilityQuery query = new CachedCompatibilityQuery(schema, schema.getRulesVersion(), requestedAttributes, candidateAttributes);
+        return cachedCompatibilityChecks.asMap().computeIfAbsent(query, key -> isMatching(schema, candidateAttributes, requestedAttributes));
+    }
+
+    private static boolean isMatching(AttributeSelectionSchema schema, ImmutableAttributes candidateAttributes, ImmutableAttributes requestedAttributes) {
         for (Attribute<?> attribute : requestedAttributes.keySet()) {
             AttributeValue<?> requestedValue = requestedAttributes.findEntry(attribute);
             AttributeValue<?> candidateValue = candidateAttributes.findEntry(attribute.getName());
@@ -165,21 +185,65 @@ private synchronized <T extends HasAttributes> void cacheMatchingResult(Collecti
         cachedQueries.put(query, queryResult);
     }
 
+    private static class CachedCompatibilityQuery {
+        private final AttributeSelectionSchema schema;
+        private final long rulesVersion;
+        private final ImmutableAttributes requestedAttributes;
+        private final ImmutableAttributes candidateAttributes;
+        private final int hashCode;
+
+        private CachedCompatibilityQuery(AttributeSelectionSchema schema, long rulesVersion, ImmutableAttributes requestedAttributes, ImmutableAttributes candidateAttributes) {
+            this.schema = schema;
+            this.rulesVersion = rulesVersion;
+            this.requestedAttributes = requestedAttributes;
+            this.candidateAttributes = candidateAttributes;
+            int hash = schema.hashCode();
+            hash = 31 * hash + Long.hashCode(rulesVersion);
+            hash = 31 * hash + requestedAttributes.hashCode();
+            hash = 31 * hash + candidateAttributes.hashCode();
+            this.hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CachedCompatibilityQuery that = (CachedCompatibilityQuery) o;
+            return hashCode == that.hashCode &&
+                rulesVersion == that.rulesVersion &&
+                schema.equals(that.schema) &&
+                requestedAttributes.equals(that.requestedAttributes) &&
+                candidateAttributes.equals(that.candidateAttributes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
     private static class CachedQuery {
         private final AttributeSelectionSchema schema;
+        private final long rulesVersion;
         private final ImmutableAttributes requestedAttributes;
         private final ImmutableAttributes[] candidates;
         private final int hashCode;
 
-        private CachedQuery(AttributeSelectionSchema schema, ImmutableAttributes requestedAttributes, ImmutableAttributes[] candidates) {
+        private CachedQuery(AttributeSelectionSchema schema, long rulesVersion, ImmutableAttributes requestedAttributes, ImmutableAttributes[] candidates) {
             this.schema = schema;
+            this.rulesVersion = rulesVersion;
             this.requestedAttributes = requestedAttributes;
             this.candidates = candidates;
-            this.hashCode = computeHashCode(schema, requestedAttributes, candidates);
+            this.hashCode = computeHashCode(schema, rulesVersion, requestedAttributes, candidates);
         }
 
-        private int computeHashCode(AttributeSelectionSchema schema, ImmutableAttributes requestedAttributes, ImmutableAttributes[] candidates) {
+        private int computeHashCode(AttributeSelectionSchema schema, long rulesVersion, ImmutableAttributes requestedAttributes, ImmutableAttributes[] candidates) {
             int hash = schema.hashCode();
+            hash = 31 * hash + Long.hashCode(rulesVersion);
             hash = 31 * hash + requestedAttributes.hashCode();
             for (ImmutableAttributes candidate : candidates) {
                 hash = 31 * hash + candidate.hashCode();
@@ -193,7 +257,7 @@ public static <T extends HasAttributes> CachedQuery of(AttributeSelectionSchema
             for (T candidate : candidates) {
                 attributes[i++] = ((AttributeContainerInternal) candidate.getAttributes()).asImmutable();
             }
-            return new CachedQuery(schema, requestedAttributes, attributes);
+            return new CachedQuery(schema, schema.getRulesVersion(), requestedAttributes, attributes);
         }
 
         public static <T extends HasAttributes> List<T> select(int[] index, Collection<? extends T> unfiltered) {
@@ -227,6 +291,7 @@ public boolean equals(Object o) {
             }
             CachedQuery that = (CachedQuery) o;
             return hashCode == that.hashCode &&
+                rulesVersion == that.rulesVersion &&
                 schema.equals(that.schema) &&
                 requestedAttributes.equals(that.requestedAttributes) &&
                 Arrays.equals(candidates, that.candidates);
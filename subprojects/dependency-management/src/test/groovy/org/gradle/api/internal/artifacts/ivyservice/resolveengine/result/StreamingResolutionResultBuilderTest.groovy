@@ -106,6 +106,48 @@ class StreamingResolutionResultBuilderTest extends Specification {
 """
     }
 
+    def "releases serializer indexes once the graph has been written and after each load"() {
+        def root = rootNode(1, "org", "root", "1.0")
+        def selector1 = Stub(DependencyGraphSelector) {
+            getResultId() >> 1L
+            getRequested() >> DefaultModuleComponentSelector.newSelector(DefaultModuleIdentifier.newId("org", "dep1"), new DefaultMutableVersionConstraint("2.0"), AttributeTestUtil.attributes(["org.foo": "v1"]), [])
+        }
+        def dep1 = node(2, "org", "dep1", "2.0", of(CONFLICT_RESOLUTION))
+        root.outgoingEdges >> [dep(selector1, 2)]
+
+        builder.start(root)
+        builder.visitNode(root)
+        builder.visitNode(dep1)
+        builder.visitSelector(selector1)
+        builder.visitEdges(root)
+        builder.finish(root)
+
+        expect:
+        !builder.serializerStateReset
+
+        when:
+        def result = builder.complete(emptySet())
+
+        then:
+        builder.serializerStateReset
+
+        when:
+        def first = printGraph(result.root)
+
+        then:
+        first == """org:root:1.0
+  org:dep1:2.0(C) [root]
+"""
+        builder.serializerStateReset
+
+        when:
+        def second = printGraph(result.root)
+
+        then:
+        second == first
+        builder.serializerStateReset
+    }
+
     def "visiting resolved module version again has no effect"() {
         def root = rootNode(1, "org", "root", "1.0")
         def selector = selector(7, "org", "dep1", "2.0")
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.verification.signatures
+
+import org.gradle.cache.CacheBuilder
+import org.gradle.cache.CacheDecorator
+import org.gradle.cache.PersistentCache
+import org.gradle.cache.PersistentIndexedCache
+import org.gradle.cache.internal.InMemoryCacheDecoratorFactory
+import org.gradle.cache.scopes.BuildScopedCache
+import org.gradle.internal.hash.FileHasher
+import org.gradle.internal.hash.Hashing
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.internal.BuildCommencedTimeProvider
+import org.junit.Rule
+import spock.lang.Specification
+import spock.lang.Subject
+
+class CrossBuildSignatureVerificationServiceTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    SignatureVerificationService verificationService = Mock()
+    FileHasher fileHasher = Stub() {
+        hash(_) >> { File file -> Hashing.hashBytes(file.bytes) }
+    }
+    BuildCommencedTimeProvider timeProvider = Stub()
+    Map<Object, Object> entries = [:]
+    PersistentIndexedCache<Object, Object> store = Stub() {
+        getIfPresent(_) >> { key -> entries[key[0]] }
+        put(_, _) >> { key, value -> entries[key] = value }
+    }
+    BuildScopedCache scopedCache = Stub()
+    InMemoryCacheDecoratorFactory cacheDecoratorFactory = Stub()
+    SignatureVerificationResultBuilder result = Mock()
+
+    @Subject
+    CrossBuildSignatureVerificationService service
+
+    def setup() {
+        def cacheBuilder
+        cacheBuilder = Stub(CacheBuilder) {
+            withDisplayName(_) >> { cacheBuilder }
+            withLockOptions(_) >> { cacheBuilder }
+            open() >> {
+                Stub(PersistentCache) {
+                    createCache(_) >> store
+                }
+            }
+        }
+        scopedCache.cache(_) >> cacheBuilder
+        cacheDecoratorFactory.decorator(_, _) >> Stub(CacheDecorator)
+        service = new CrossBuildSignatureVerificationService(verificationService, fileHasher, scopedCache, cacheDecoratorFactory, timeProvider, false, true, Hashing.signature("keyring"))
+    }
+
+    def "reuses the result of verifying an artifact with the same content at another location"() {
+        def artifact = tmpDir.file("repo1/lib.jar") << "content"
+        def signature = tmpDir.file("repo1/lib.jar.asc") << "signature"
+        def movedArtifact = tmpDir.file("repo2/lib.jar") << "content"
+        def movedSignature = tmpDir.file("repo2/lib.jar.asc") << "signature"
+
+        when:
+        service.verify(artifact, signature, ["ABCD"] as Set, [] as Set, result)
+
+        then:
+        1 * verificationService.verify(artifact, signature, ["ABCD"] as Set, [] as Set, _) >> { args -> args[4].ignored("ABCD") }
+        1 * result.ignored("ABCD")
+
+        when:
+        service.verify(movedArtifact, movedSignature, ["ABCD"] as Set, [] as Set, result)
+
+        then:
+        0 * verificationService.verify(*_)
+        1 * result.ignored("ABCD")
+    }
+
+    def "verifies an artifact again when its content has changed"() {
+        def artifact = tmpDir.file("repo/lib.jar") << "content"
+        def signature = tmpDir.file("repo/lib.jar.asc") << "signature"
+
+        when:
+        service.verify(artifact, signature, ["ABCD"] as Set, [] as Set, result)
+
+        then:
+        1 * verificationService.verify(artifact, signature, ["ABCD"] as Set, [] as Set, _)
+
+        when:
+        artifact.text = "changed"
+        service.verify(artifact, signature, ["ABCD"] as Set, [] as Set, result)
+
+        then:
+        1 * verificationService.verify(artifact, signature, ["ABCD"] as Set, [] as Set, _)
+    }
+}
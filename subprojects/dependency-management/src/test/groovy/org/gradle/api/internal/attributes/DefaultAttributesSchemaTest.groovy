@@ -180,6 +180,93 @@ class DefaultAttributesSchemaTest extends Specification {
         !schema.matcher().isMatching(attr, value1, value2)
     }
 
+    static class CountingCompatibilityRule implements AttributeCompatibilityRule<String> {
+        static int count
+
+        @Override
+        void execute(CompatibilityCheckDetails<String> details) {
+            count++
+            details.compatible()
+        }
+    }
+
+    def "shares compatibility checks between selections against the same producer"() {
+        def attr = Attribute.of(String)
+        def componentAttributeMatcher = new ComponentAttributeMatcher()
+        def consumerSchema = new DefaultAttributesSchema(componentAttributeMatcher, TestUtil.instantiatorFactory(), SnapshotTestUtil.isolatableFactory())
+        def producerSchema = new DefaultAttributesSchema(new ComponentAttributeMatcher(), TestUtil.instantiatorFactory(), SnapshotTestUtil.isolatableFactory())
+        def otherProducerSchema = new DefaultAttributesSchema(new ComponentAttributeMatcher(), TestUtil.instantiatorFactory(), SnapshotTestUtil.isolatableFactory())
+        def candidate = AttributeTestUtil.attributesTyped((attr): "compatible")
+        def requested = AttributeTestUtil.attributesTyped((attr): "requested")
+
+        given:
+        consumerSchema.attribute(attr).compatibilityRules.add(CountingCompatibilityRule)
+        CountingCompatibilityRule.count = 0
+
+        when:
+        def first = consumerSchema.withProducer(producerSchema).isMatching(candidate, requested)
+        def second = consumerSchema.withProducer(producerSchema).isMatching(candidate, requested)
+
+        then:
+        first
+        second
+        CountingCompatibilityRule.count == 1
+
+        when:
+        def other = consumerSchema.withProducer(otherProducerSchema).isMatching(candidate, requested)
+
+        then:
+        other
+        CountingCompatibilityRule.count == 2
+    }
+
+    def "does not use cached compatibility checks once rules are added to the consumer or the producer"() {
+        def attr = Attribute.of(String)
+        def consumerSchema = new DefaultAttributesSchema(new ComponentAttributeMatcher(), TestUtil.instantiatorFactory(), SnapshotTestUtil.isolatableFactory())
+        def producerSchema = new DefaultAttributesSchema(new ComponentAttributeMatcher(), TestUtil.instantiatorFactory(), SnapshotTestUtil.isolatableFactory())
+        def candidate = AttributeTestUtil.attributesTyped((attr): "compatible")
+        def requested = AttributeTestUtil.attributesTyped((attr): "requested")
+        def matcher = consumerSchema.withProducer(producerSchema)
+
+        expect:
+        !matcher.isMatching(candidate, requested)
+
+        when:
+        producerSchema.attribute(attr).compatibilityRules.add(CountingCompatibilityRule)
+
+        then:
+        matcher.isMatching(candidate, requested)
+
+        when:
+        consumerSchema.attribute(attr).compatibilityRules.add(IncompatibleStringsRule)
+
+        then:
+        !matcher.isMatching(candidate, requested)
+        !consumerSchema.withProducer(producerSchema).isMatching(candidate, requested)
+    }
+
+    def "rules version changes when attributes, rules or precedence change"() {
+        def attr = Attribute.of("a", String)
+        def other = Attribute.of("b", String)
+
+        when:
+        def initial = schema.rulesVersion
+        schema.attribute(attr)
+        def withAttribute = schema.rulesVersion
+        schema.attribute(attr).disambiguationRules.pickFirst(Comparator.naturalOrder())
+        def withRule = schema.rulesVersion
+        schema.attributeDisambiguationPrecedence(attr)
+        def withPrecedence = schema.rulesVersion
+        schema.attributeDisambiguationPrecedence = [other]
+        def withOtherPrecedence = schema.rulesVersion
+
+        then:
+        initial < withAttribute
+        withAttribute < withRule
+        withRule < withPrecedence
+        withPrecedence < withOtherPrecedence
+    }
+
     static class IncompatibleStringsRule implements AttributeCompatibilityRule<String> {
         @Override
         void execute(CompatibilityCheckDetails<String> details) {
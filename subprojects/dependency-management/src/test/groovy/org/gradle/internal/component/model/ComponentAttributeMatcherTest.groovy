@@ -570,6 +570,58 @@ class ComponentAttributeMatcherTest extends Specification {
         NamedTestAttribute  | "foo"         | "bar"
     }
 
+    def "caches result of compatibility check for same schema and attributes"() {
+        given:
+        def matcher = new ComponentAttributeMatcher()
+
+        def usage = Attribute.of('usage', String)
+        schema.attribute(usage)
+        schema.accept(usage, "requested", "compatible")
+
+        def candidate1 = attributes(usage: "compatible")
+        def candidate2 = attributes(usage: "compatible")
+        def requested = attributes(usage: "requested")
+
+        when:
+        def first = matcher.isMatching(schema, candidate1, requested)
+        def second = matcher.isMatching(schema, candidate2, requested)
+
+        then:
+        first
+        second
+        schema.matchValueCount == 1
+
+        when:
+        def otherSchema = new TestSchema()
+        otherSchema.attribute(usage)
+
+        then:
+        !matcher.isMatching(otherSchema, candidate1, requested)
+        otherSchema.matchValueCount == 1
+    }
+
+    def "does not use cached result of compatibility check once the rules of the schema change"() {
+        given:
+        def matcher = new ComponentAttributeMatcher()
+
+        def usage = Attribute.of('usage', String)
+        schema.attribute(usage)
+
+        def candidate = attributes(usage: "compatible")
+        def requested = attributes(usage: "requested")
+
+        expect:
+        !matcher.isMatching(schema, candidate, requested)
+        schema.matchValueCount == 1
+
+        when:
+        schema.accept(usage, "requested", "compatible")
+
+        then:
+        matcher.isMatching(schema, candidate, requested)
+        schema.matchValueCount == 2
+    }
+
     private AttributeContainerInternal attributes() {
         factory.mutable()
     }
@@ -590,13 +642,17 @@ class ComponentAttributeMatcherTest extends Specification {
         Map<Attribute<?>, Object> preferredValue = [:]
         Map<Attribute<?>, AttributeDisambiguationRule> rules = [:]
         Map<Attribute<?>, Multimap<Object, Object>> compatibleValues = [:]
+        int matchValueCount
+        long rulesVersion
 
         void attribute(Attribute<?> attribute) {
             attributes.add(attribute)
             attributesByName.put(attribute.getName(), attribute)
+            rulesVersion++
         }
 
         void accept(Attribute<?> attribute, Object consumer, Object producer) {
+            rulesVersion++
             if (!compatibleValues.containsKey(attribute)) {
                 compatibleValues.put(attribute, LinkedListMultimap.create())
             }
@@ -604,10 +660,12 @@ class ComponentAttributeMatcherTest extends Specification {
         }
 
         void select(Attribute<?> attribute, AttributeDisambiguationRule rule) {
+            rulesVersion++
             rules.put(attribute, rule)
         }
 
         void prefer(Attribute<?> attribute, Object value) {
+            rulesVersion++
             preferredValue.put(attribute, value)
         }
 
@@ -623,6 +681,7 @@ class ComponentAttributeMatcherTest extends Specification {
 
         @Override
         boolean matchValue(Attribute<?> attribute, Object requested, Object candidate) {
+            matchValueCount++
             if (attributes.contains(attribute)) {
                 if (compatibleValues.containsKey(attribute)) {
                     if (compatibleValues.get(attribute).get(requested).contains(candidate)) {
@@ -29,6 +29,13 @@ public interface Details {
     }
 
     public interface Result {
+
+        /**
+         * The size in bytes of the loaded state files, as written to disk.
+         *
+         * @since 8.0
+         */
+        long getCacheEntrySize();
     }
 
 }
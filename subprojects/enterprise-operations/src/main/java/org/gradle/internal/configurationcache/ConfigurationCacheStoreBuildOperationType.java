@@ -29,6 +29,13 @@ public interface Details {
     }
 
     public interface Result {
+
+        /**
+         * The size in bytes of the stored state files, as written to disk.
+         *
+         * @since 8.0
+         */
+        long getCacheEntrySize();
     }
 
 }
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.watch.vfs.impl;
+
+import org.gradle.internal.file.FileMetadata;
+import org.gradle.internal.file.impl.DefaultFileMetadata;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.serialize.Decoder;
+import org.gradle.internal.serialize.Encoder;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.gradle.internal.snapshot.DirectorySnapshot;
+import org.gradle.internal.snapshot.FileSystemLocationSnapshot;
+import org.gradle.internal.snapshot.MissingFileSnapshot;
+import org.gradle.internal.snapshot.PathUtil;
+import org.gradle.internal.snapshot.RegularFileSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the snapshots of a watched virtual file system on disk, so a new daemon can start with the state of the previous one.
+ *
+ * The file system is not watched while no daemon is running, so every snapshot is revalidated when it is loaded:
+ * regular files by their length, modification time and file key, and directories by their modification time and file key.
+ * The modification time of a directory changes when entries are added to it or removed from it,
+ * and together with the checks of the children this makes sure that a restored directory snapshot is still complete.
+ * Snapshots which don't pass the check are dropped, while their children which do pass it are kept.
+ */
+public class PersistentVirtualFileSystemState {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PersistentVirtualFileSystemState.class);
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Locations modified this recently are not persisted, since the watcher may not have reported the change yet,
+     * and since the change may not be visible in the modification time on file systems with a coarse timestamp resolution.
+     */
+    private static final long RECENT_CHANGE_THRESHOLD = TimeUnit.SECONDS.toMillis(2);
+
+    private enum EntryType {
+        DIR_OPEN,
+        REGULAR_FILE,
+        MISSING,
+        DIR_CLOSE,
+        END
+    }
+
+    private final File stateFile;
+
+    public PersistentVirtualFileSystemState(File stateFile) {
+        this.stateFile = stateFile;
+    }
+
+    /**
+     * Writes the snapshots which still match the file system, replacing any previously persisted state.
+     */
+    public void save(Stream<FileSystemLocationSnapshot> rootSnapshots) {
+        long recentChangeCutoff = System.currentTimeMillis() - RECENT_CHANGE_THRESHOLD;
+        Path stateDir = stateFile.getParentFile().toPath();
+        Path tempFile = null;
+        try {
+            Files.createDirectories(stateDir);
+            tempFile = Files.createTempFile(stateDir, stateFile.getName(), ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tempFile); KryoBackedEncoder encoder = new KryoBackedEncoder(outputStream)) {
+                encoder.writeSmallInt(FORMAT_VERSION);
+                Iterator<FileSystemLocationSnapshot> iterator = rootSnapshots.iterator();
+                while (iterator.hasNext()) {
+                    writeSnapshot(encoder, iterator.next(), true, recentChangeCutoff);
+                }
+                writeEntryType(encoder, EntryType.END);
+            }
+            Files.move(tempFile, stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.debug("Saved virtual file system state to {}", stateFile);
+        } catch (Exception e) {
+            LOGGER.info("Unable to save virtual file system state to {}", stateFile, e);
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                    // Leave the temporary file behind
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the persisted snapshots, returning the ones which still match the file system.
+     */
+    public List<FileSystemLocationSnapshot> loadValidSnapshots() {
+        List<FileSystemLocationSnapshot> validSnapshots = new ArrayList<>();
+        try (InputStream inputStream = Files.newInputStream(stateFile.toPath()); KryoBackedDecoder decoder = new KryoBackedDecoder(inputStream)) {
+            if (decoder.readSmallInt() != FORMAT_VERSION) {
+                return validSnapshots;
+            }
+            EntryType type;
+            while ((type = readEntryType(decoder)) != EntryType.END) {
+                readSnapshot(decoder, type, null, validSnapshots);
+            }
+            LOGGER.debug("Loaded {} valid snapshots from virtual file system state {}", validSnapshots.size(), stateFile);
+            return validSnapshots;
+        } catch (NoSuchFileException e) {
+            return validSnapshots;
+        } catch (Exception e) {
+            LOGGER.info("Unable to load virtual file system state from {}", stateFile, e);
+            validSnapshots.clear();
+            return validSnapshots;
+        }
+    }
+
+    /**
+     * Writes a snapshot and returns whether it was written completely.
+     *
+     * Entries which don't match the file system any more are left out, and their parent directories are written as incomplete.
+     */
+    private static boolean writeSnapshot(Encoder encoder, FileSystemLocationSnapshot snapshot, boolean isRoot, long recentChangeCutoff) throws IOException {
+        String path = isRoot ? snapshot.getAbsolutePath() : snapshot.getName();
+        BasicFileAttributes attributes = readAttributes(snapshot.getAbsolutePath(), snapshot.getAccessType());
+        if (snapshot instanceof DirectorySnapshot) {
+            DirectorySnapshot directorySnapshot = (DirectorySnapshot) snapshot;
+            writeEntryType(encoder, EntryType.DIR_OPEN);
+            encoder.writeString(path);
+            boolean complete = attributes != null
+                && attributes.isDirectory()
+                && attributes.lastModifiedTime().toMillis() < recentChangeCutoff;
+            for (FileSystemLocationSnapshot child : directorySnapshot.getChildren()) {
+                complete &= writeSnapshot(encoder, child, false, recentChangeCutoff);
+            }
+            writeEntryType(encoder, EntryType.DIR_CLOSE);
+            writeAccessType(encoder, directorySnapshot.getAccessType());
+            encoder.writeBinary(directorySnapshot.getHash().toByteArray());
+            encoder.writeBoolean(complete);
+            if (complete) {
+                encoder.writeLong(attributes.lastModifiedTime().toMillis());
+                encoder.writeNullableString(fileKeyOf(attributes));
+            }
+            return complete;
+        } else if (snapshot instanceof RegularFileSnapshot) {
+            RegularFileSnapshot fileSnapshot = (RegularFileSnapshot) snapshot;
+            if (!matches(fileSnapshot, attributes) || fileSnapshot.getMetadata().getLastModified() >= recentChangeCutoff) {
+                return false;
+            }
+            writeEntryType(encoder, EntryType.REGULAR_FILE);
+            encoder.writeString(path);
+            writeAccessType(encoder, fileSnapshot.getAccessType());
+            encoder.writeBinary(fileSnapshot.getHash().toByteArray());
+            encoder.writeSmallLong(fileSnapshot.getMetadata().getLastModified());
+            encoder.writeSmallLong(fileSnapshot.getMetadata().getLength());
+            encoder.writeNullableString(fileKeyOf(attributes));
+            return true;
+        } else {
+            if (attributes != null) {
+                return false;
+            }
+            writeEntryType(encoder, EntryType.MISSING);
+            encoder.writeString(path);
+            writeAccessType(encoder, snapshot.getAccessType());
+            return true;
+        }
+    }
+
+    /**
+     * Reads a snapshot, adding it to the valid snapshots if it still matches the file system,
+     * or adding its valid descendants otherwise.
+     *
+     * @return whether the snapshot itself was valid.
+     */
+    private static boolean readSnapshot(Decoder decoder, EntryType type, @Nullable String parentPath, List<FileSystemLocationSnapshot> validSnapshots) throws IOException {
+        String path = decoder.readString();
+        String absolutePath = parentPath == null ? path : childPath(parentPath, path);
+        String name = parentPath == null ? PathUtil.getFileName(absolutePath) : path;
+        switch (type) {
+            case DIR_OPEN:
+                List<FileSystemLocationSnapshot> validChildren = new ArrayList<>();
+                boolean allChildrenValid = true;
+                EntryType childType;
+                while ((childType = readEntryType(decoder)) != EntryType.DIR_CLOSE) {
+                    allChildrenValid &= readSnapshot(decoder, childType, absolutePath, validChildren);
+                }
+                FileMetadata.AccessType accessType = readAccessType(decoder);
+                HashCode hash = HashCode.fromBytes(decoder.readBinary());
+                boolean complete = decoder.readBoolean();
+                boolean valid = false;
+                if (complete) {
+                    long lastModified = decoder.readLong();
+                    String fileKey = decoder.readNullableString();
+                    BasicFileAttributes attributes = readAttributes(absolutePath, accessType);
+                    valid = allChildrenValid
+                        && attributes != null
+                        && attributes.isDirectory()
+                        && attributes.lastModifiedTime().toMillis() == lastModified
+                        && sameFileKey(fileKey, attributes);
+                }
+                if (valid) {
+                    validSnapshots.add(new DirectorySnapshot(absolutePath, name, accessType, hash, validChildren));
+                } else {
+                    validSnapshots.addAll(validChildren);
+                }
+                return valid;
+            case REGULAR_FILE:
+                FileMetadata.AccessType fileAccessType = readAccessType(decoder);
+                HashCode contentHash = HashCode.fromBytes(decoder.readBinary());
+                long lastModified = decoder.readSmallLong();
+                long length = decoder.readSmallLong();
+                String fileKey = decoder.readNullableString();
+                RegularFileSnapshot fileSnapshot = new RegularFileSnapshot(absolutePath, name, contentHash, DefaultFileMetadata.file(lastModified, length, fileAccessType));
+                BasicFileAttributes fileAttributes = readAttributes(absolutePath, fileAccessType);
+                if (matches(fileSnapshot, fileAttributes) && sameFileKey(fileKey, fileAttributes)) {
+                    validSnapshots.add(fileSnapshot);
+                    return true;
+                }
+                return false;
+            case MISSING:
+                FileMetadata.AccessType missingAccessType = readAccessType(decoder);
+                if (readAttributes(absolutePath, missingAccessType) == null) {
+                    validSnapshots.add(new MissingFileSnapshot(absolutePath, name, missingAccessType));
+                    return true;
+                }
+                return false;
+            default:
+                throw new IllegalStateException("Unexpected entry type " + type);
+        }
+    }
+
+    private static boolean matches(RegularFileSnapshot fileSnapshot, @Nullable BasicFileAttributes attributes) {
+        return attributes != null
+            && attributes.isRegularFile()
+            && attributes.size() == fileSnapshot.getMetadata().getLength()
+            && attributes.lastModifiedTime().toMillis() == fileSnapshot.getMetadata().getLastModified();
+    }
+
+    private static boolean sameFileKey(@Nullable String fileKey, BasicFileAttributes attributes) {
+        String currentFileKey = fileKeyOf(attributes);
+        return fileKey == null ? currentFileKey == null : fileKey.equals(currentFileKey);
+    }
+
+    @Nullable
+    private static String fileKeyOf(BasicFileAttributes attributes) {
+        Object fileKey = attributes.fileKey();
+        return fileKey == null ? null : fileKey.toString();
+    }
+
+    @Nullable
+    private static BasicFileAttributes readAttributes(String absolutePath, FileMetadata.AccessType accessType) {
+        try {
+            return accessType == FileMetadata.AccessType.DIRECT
+                ? Files.readAttributes(Paths.get(absolutePath), BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)
+                : Files.readAttributes(Paths.get(absolutePath), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String childPath(String parentPath, String name) {
+        return parentPath.endsWith(File.separator) ? parentPath + name : parentPath + File.separatorChar + name;
+    }
+
+    private static EntryType readEntryType(Decoder decoder) throws IOException {
+        return EntryType.values()[decoder.readByte()];
+    }
+
+    private static void writeEntryType(Encoder encoder, EntryType type) throws IOException {
+        encoder.writeByte((byte) type.ordinal());
+    }
+
+    private static FileMetadata.AccessType readAccessType(Decoder decoder) throws IOException {
+        return FileMetadata.AccessType.values()[decoder.readByte()];
+    }
+
+    private static void writeAccessType(Encoder encoder, FileMetadata.AccessType accessType) throws IOException {
+        encoder.writeByte((byte) accessType.ordinal());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.watch.vfs.impl
+
+import org.gradle.internal.file.FileMetadata.AccessType
+import org.gradle.internal.file.impl.DefaultFileMetadata
+import org.gradle.internal.hash.TestHashCodes
+import org.gradle.internal.snapshot.DirectorySnapshot
+import org.gradle.internal.snapshot.FileSystemLocationSnapshot
+import org.gradle.internal.snapshot.MissingFileSnapshot
+import org.gradle.internal.snapshot.RegularFileSnapshot
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.util.stream.Stream
+
+class PersistentVirtualFileSystemStateTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider(getClass())
+
+    def state = new PersistentVirtualFileSystemState(tmpDir.file("state/vfs.bin"))
+    def lastModified = System.currentTimeMillis() - 60_000
+    def dir = tmpDir.createDir("dir")
+    def fileA = createFile(dir.file("a.txt"), "a")
+    def fileB = createFile(dir.file("b.txt"), "bb")
+    def missing = tmpDir.file("missing")
+
+    def setup() {
+        dir.setLastModified(lastModified)
+    }
+
+    def "restores snapshots which did not change"() {
+        given:
+        state.save(Stream.of(directorySnapshot(), new MissingFileSnapshot(missing.absolutePath, AccessType.DIRECT)))
+
+        when:
+        def restored = state.loadValidSnapshots()
+
+        then:
+        restored*.absolutePath == [dir.absolutePath, missing.absolutePath]
+        (restored[0] as DirectorySnapshot).children*.name == ["a.txt", "b.txt"]
+        restored[0].hash == directorySnapshot().hash
+    }
+
+    def "keeps unchanged siblings of a changed file"() {
+        given:
+        state.save(Stream.of(directorySnapshot()))
+
+        when:
+        fileB.setLastModified(lastModified + 1000)
+        def restored = state.loadValidSnapshots()
+
+        then:
+        restored.size() == 1
+        restored[0] instanceof RegularFileSnapshot
+        restored[0].absolutePath == fileA.absolutePath
+    }
+
+    def "drops a directory when entries have been added to it"() {
+        given:
+        state.save(Stream.of(directorySnapshot()))
+
+        when:
+        createFile(dir.file("c.txt"), "c")
+        dir.setLastModified(lastModified + 5000)
+        def restored = state.loadValidSnapshots()
+
+        then:
+        restored*.absolutePath == [fileA.absolutePath, fileB.absolutePath]
+    }
+
+    def "drops a missing file snapshot when the file has been created"() {
+        given:
+        state.save(Stream.of(new MissingFileSnapshot(missing.absolutePath, AccessType.DIRECT)))
+
+        when:
+        missing.createFile()
+        def restored = state.loadValidSnapshots()
+
+        then:
+        restored.empty
+    }
+
+    def "does not persist files modified after they were snapshotted"() {
+        given:
+        def snapshot = directorySnapshot()
+        fileA.setLastModified(lastModified + 1000)
+        state.save(Stream.of(snapshot))
+
+        when:
+        fileA.setLastModified(lastModified)
+        def restored = state.loadValidSnapshots()
+
+        then:
+        restored*.absolutePath == [fileB.absolutePath]
+    }
+
+    def "restores nothing when there is no persisted state"() {
+        expect:
+        state.loadValidSnapshots().empty
+    }
+
+    private TestFile createFile(TestFile file, String text) {
+        file.text = text
+        file.setLastModified(lastModified)
+        return file
+    }
+
+    private DirectorySnapshot directorySnapshot() {
+        new DirectorySnapshot(dir.absolutePath, dir.name, AccessType.DIRECT, TestHashCodes.hashCodeFrom(1234), [fileSnapshot(fileA), fileSnapshot(fileB)] as List<FileSystemLocationSnapshot>)
+    }
+
+    private static RegularFileSnapshot fileSnapshot(TestFile file) {
+        new RegularFileSnapshot(file.absolutePath, file.name, TestHashCodes.hashCodeFrom(file.text.hashCode()), DefaultFileMetadata.file(file.lastModified(), file.length(), AccessType.DIRECT))
+    }
+}
@@ -17,8 +17,11 @@
 package org.gradle.internal.watch.vfs.impl
 
 import net.rubygrapefruit.platform.NativeException
+import org.gradle.internal.file.FileMetadata
 import org.gradle.internal.operations.TestBuildOperationExecutor
 import org.gradle.internal.snapshot.CaseSensitivity
+import org.gradle.internal.snapshot.FileSystemLocationSnapshot
+import org.gradle.internal.snapshot.MissingFileSnapshot
 import org.gradle.internal.snapshot.SnapshotHierarchy
 import org.gradle.internal.vfs.impl.DefaultSnapshotHierarchy
 import org.gradle.internal.watch.registry.FileWatcherRegistry
@@ -31,6 +34,9 @@ import org.gradle.internal.watch.vfs.WatchLogging
 import org.gradle.internal.watch.vfs.WatchableFileSystemDetector
 import spock.lang.Specification
 
+import java.util.stream.Collectors
+import java.util.stream.Stream
+
 class WatchingVirtualFileSystemTest extends Specification {
     def watcherRegistryFactory = Mock(FileWatcherRegistryFactory)
     def watcherRegistry = Mock(FileWatcherRegistry)
@@ -43,13 +49,15 @@ class WatchingVirtualFileSystemTest extends Specification {
     def buildOperationRunner = new TestBuildOperationExecutor()
     def watchableFileSystemDetector = Mock(WatchableFileSystemDetector)
     def fileChangeListeners = Mock(FileChangeListeners)
+    def persistentState = Mock(PersistentVirtualFileSystemState)
     def watchingVirtualFileSystem = new WatchingVirtualFileSystem(
         watcherRegistryFactory,
         nonEmptySnapshotHierarchy,
         daemonDocumentationIndex,
         locationsUpdatedByCurrentBuild,
         watchableFileSystemDetector,
-        fileChangeListeners
+        fileChangeListeners,
+        persistentState
     )
 
     def "invalidates the virtual file system before and after the build when watching is disabled"() {
@@ -75,6 +83,7 @@ class WatchingVirtualFileSystemTest extends Specification {
         watchingVirtualFileSystem.afterBuildStarted(WatchMode.ENABLED, VfsLogging.NORMAL, WatchLogging.NORMAL, buildOperationRunner)
         then:
         1 * watcherRegistryFactory.createFileWatcherRegistry(_) >> watcherRegistry
+        1 * persistentState.loadValidSnapshots() >> []
         1 * watcherRegistry.updateVfsOnBuildStarted(_, _, _) >> watchingVirtualFileSystem.root
         1 * watcherRegistry.setDebugLoggingEnabled(false)
         0 * _
@@ -101,6 +110,7 @@ class WatchingVirtualFileSystemTest extends Specification {
         watchingVirtualFileSystem.afterBuildStarted(WatchMode.ENABLED, VfsLogging.NORMAL, WatchLogging.NORMAL, buildOperationRunner)
         then:
         1 * watcherRegistryFactory.createFileWatcherRegistry(_) >> watcherRegistry
+        1 * persistentState.loadValidSnapshots() >> []
         1 * watcherRegistry.updateVfsOnBuildStarted(_, _, _) >> watchingVirtualFileSystem.root
         1 * watcherRegistry.setDebugLoggingEnabled(false)
         0 * _
@@ -141,6 +151,7 @@ class WatchingVirtualFileSystemTest extends Specification {
         watchingVirtualFileSystem.afterBuildStarted(WatchMode.ENABLED, VfsLogging.NORMAL, WatchLogging.NORMAL, buildOperationRunner)
         then:
         1 * watcherRegistryFactory.createFileWatcherRegistry(_) >> watcherRegistry
+        1 * persistentState.loadValidSnapshots() >> []
         1 * watcherRegistry.updateVfsOnBuildStarted(_, _, _) >> watchingVirtualFileSystem.root
         1 * watcherRegistry.setDebugLoggingEnabled(false)
         1 * watcherRegistry.registerWatchableHierarchy(watchableHierarchy, _)
@@ -164,6 +175,43 @@ class WatchingVirtualFileSystemTest extends Specification {
         1 * watcherRegistry.registerWatchableHierarchy(newWatchableHierarchy, _)
     }
 
+    def "restores the persisted state when starting to watch and persists the state when closed"() {
+        def restoredSnapshot = new MissingFileSnapshot(new File("restored").absolutePath, FileMetadata.AccessType.DIRECT)
+        def persistedSnapshots = null
+
+        when:
+        watchingVirtualFileSystem.afterBuildStarted(WatchMode.ENABLED, VfsLogging.NORMAL, WatchLogging.NORMAL, buildOperationRunner)
+        then:
+        1 * watcherRegistryFactory.createFileWatcherRegistry(_) >> watcherRegistry
+        1 * watcherRegistry.updateVfsOnBuildStarted(_, _, _) >> emptySnapshotHierarchy
+        1 * persistentState.loadValidSnapshots() >> [restoredSnapshot]
+        1 * watcherRegistry.virtualFileSystemContentsChanged([], [restoredSnapshot], _)
+        1 * watcherRegistry.setDebugLoggingEnabled(false)
+        0 * _
+
+        watchingVirtualFileSystem.findSnapshot(restoredSnapshot.absolutePath).get() == restoredSnapshot
+
+        when:
+        watchingVirtualFileSystem.close()
+        then:
+        1 * persistentState.save(_) >> { Stream<FileSystemLocationSnapshot> snapshots -> persistedSnapshots = snapshots.collect(Collectors.toList()) }
+        1 * watcherRegistry.close()
+        0 * _
+
+        persistedSnapshots == [restoredSnapshot]
+        watchingVirtualFileSystem.root == emptySnapshotHierarchy
+    }
+
+    def "does not persist the state when closed without watching"() {
+        when:
+        watchingVirtualFileSystem.updateRootUnderLock { root -> nonEmptySnapshotHierarchy }
+        watchingVirtualFileSystem.close()
+        then:
+        0 * _
+
+        watchingVirtualFileSystem.root == emptySnapshotHierarchy
+    }
+
     def "detects unsupported file systems on default watch mode"() {
         def unsupportedFileSystems = [new File("unsupported")]
 
@@ -172,6 +220,7 @@ class WatchingVirtualFileSystemTest extends Specification {
         then:
         1 * watchableFileSystemDetector.detectUnsupportedFileSystems() >> unsupportedFileSystems.stream()
         1 * watcherRegistryFactory.createFileWatcherRegistry(_) >> watcherRegistry
+        1 * persistentState.loadValidSnapshots() >> []
         1 * watcherRegistry.updateVfsOnBuildStarted(_, _, unsupportedFileSystems) >> watchingVirtualFileSystem.root
         1 * watcherRegistry.setDebugLoggingEnabled(false)
         0 * _
@@ -208,6 +257,7 @@ class WatchingVirtualFileSystemTest extends Specification {
         watchingVirtualFileSystem.afterBuildStarted(WatchMode.ENABLED, VfsLogging.NORMAL, WatchLogging.NORMAL, buildOperationRunner)
         then:
         1 * watcherRegistryFactory.createFileWatcherRegistry(_) >> watcherRegistry
+        1 * persistentState.loadValidSnapshots() >> []
         1 * watcherRegistry.updateVfsOnBuildStarted(_, _, []) >> watchingVirtualFileSystem.root
         1 * watcherRegistry.setDebugLoggingEnabled(false)
         0 * _
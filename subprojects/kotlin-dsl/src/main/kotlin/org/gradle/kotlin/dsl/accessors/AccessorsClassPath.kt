@@ -67,7 +67,8 @@ class ProjectAccessorsClassPathGenerator @Inject constructor(
     private val projectSchemaProvider: ProjectSchemaProvider,
     private val executionEngine: ExecutionEngine,
     private val inputFingerprinter: InputFingerprinter,
-    private val workspaceProvider: KotlinDslWorkspaceProvider
+    private val workspaceProvider: KotlinDslWorkspaceProvider,
+    private val emittedAccessorCache: EmittedAccessorCache
 ) {
 
     fun projectAccessorsClassPath(project: Project, classPath: ClassPath): AccessorsClassPath =
@@ -86,7 +87,8 @@ class ProjectAccessorsClassPathGenerator @Inject constructor(
                 classPath,
                 fileCollectionFactory,
                 inputFingerprinter,
-                workspaceProvider
+                workspaceProvider,
+                emittedAccessorCache
             )
             val result = executionEngine.createRequest(work).execute()
             result.execution.get().output as AccessorsClassPath
@@ -110,7 +112,8 @@ class GenerateProjectAccessors(
     private val classPath: ClassPath,
     private val fileCollectionFactory: FileCollectionFactory,
     private val inputFingerprinter: InputFingerprinter,
-    private val workspaceProvider: KotlinDslWorkspaceProvider
+    private val workspaceProvider: KotlinDslWorkspaceProvider,
+    private val emittedAccessorCache: EmittedAccessorCache
 ) : UnitOfWork {
 
     companion object {
@@ -127,7 +130,8 @@ class GenerateProjectAccessors(
                 projectSchema,
                 classPath,
                 srcDir = getSourcesOutputDir(workspace),
-                binDir = getClassesOutputDir(workspace)
+                binDir = getClassesOutputDir(workspace),
+                emittedAccessorCache = emittedAccessorCache
             )
         }
         return object : UnitOfWork.WorkOutput {
@@ -204,7 +208,8 @@ fun IO.buildAccessorsFor(
     srcDir: File,
     binDir: File?,
     packageName: String = kotlinDslPackageName,
-    format: AccessorFormat = AccessorFormats.default
+    format: AccessorFormat = AccessorFormats.default,
+    emittedAccessorCache: EmittedAccessorCache? = null
 ) {
     val availableSchema = availableProjectSchemaFor(projectSchema, classPath)
     emitAccessorsFor(
@@ -212,7 +217,8 @@ fun IO.buildAccessorsFor(
         srcDir,
         binDir,
         OutputPackage(packageName),
-        format
+        format,
+        emittedAccessorCache
     )
 }
 
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.kotlin.dsl.accessors
+
+import com.google.common.cache.Cache
+import com.google.common.cache.CacheBuilder
+
+import org.gradle.kotlin.dsl.support.bytecode.InternalName
+
+
+/**
+ * Keeps the source and bytecode emitted for individual accessors in memory, so that
+ * generating the accessors for a schema only has to emit the accessors that are
+ * not already part of a schema generated before.
+ *
+ * Similar projects share most of their accessors, and a schema change usually only
+ * adds or removes a few of them, while each distinct schema gets its own workspace.
+ *
+ * Accessors are identified by their string representation, the same way their class
+ * names are derived, so that no reference to the types of the schema is retained.
+ */
+class EmittedAccessorCache {
+
+    private
+    val emittedAccessors: Cache<Key, EmittedAccessor> = CacheBuilder.newBuilder()
+        .maximumWeight(MAX_RETAINED_BYTES)
+        .weigher<Key, EmittedAccessor> { _, emittedAccessor -> emittedAccessor.weight }
+        .build()
+
+    internal
+    fun emittedAccessorFor(
+        accessor: Accessor,
+        outputPackage: OutputPackage,
+        format: AccessorFormat,
+        moduleName: String?,
+        emit: () -> EmittedAccessor
+    ): EmittedAccessor {
+        val key = Key(accessor.toString(), outputPackage.name, format, moduleName)
+        return emittedAccessors.getIfPresent(key)
+            ?: emit().also { emittedAccessors.put(key, it) }
+    }
+
+    private
+    data class Key(
+        val accessor: String,
+        val packageName: String,
+        val format: AccessorFormat,
+        val moduleName: String?
+    )
+
+    private
+    companion object {
+        const val MAX_RETAINED_BYTES = 16L * 1024 * 1024
+    }
+}
+
+
+internal
+class EmittedAccessor(
+    val className: InternalName,
+    val sourceCode: List<String>,
+    val imports: List<String>,
+    val classBytes: ByteArray?
+) {
+    val weight: Int
+        get() = (classBytes?.size ?: 0) + 2 * sourceCode.sumOf { it.length }
+}
@@ -39,22 +39,22 @@ fun IO.emitAccessorsFor(
     srcDir: File,
     binDir: File?,
     outputPackage: OutputPackage,
-    format: AccessorFormat
+    format: AccessorFormat,
+    emittedAccessorCache: EmittedAccessorCache? = null
 ): List<InternalName> {
 
     makeAccessorOutputDirs(srcDir, binDir, outputPackage.path)
 
     val moduleName = binDir?.name ?: "kotlin-dsl-accessors"
+    val bytecodeModuleName = binDir?.let { moduleName }
     val emittedClassNames =
         accessorsFor(projectSchema).map { accessor ->
-            emitClassFor(
-                accessor,
-                srcDir,
-                binDir,
-                outputPackage,
-                format,
-                moduleName
-            )
+            val emittedAccessor =
+                emittedAccessorCache?.emittedAccessorFor(accessor, outputPackage, format, bytecodeModuleName) {
+                    emitClassFor(accessor, outputPackage, format, bytecodeModuleName)
+                } ?: emitClassFor(accessor, outputPackage, format, bytecodeModuleName)
+            writeEmittedAccessor(emittedAccessor, srcDir, binDir, outputPackage)
+            emittedAccessor.className
         }.toList()
 
     if (binDir != null) {
@@ -87,15 +87,16 @@ data class OutputPackage(val name: String) {
 }
 
 
+/**
+ * Emits the source and, given a [bytecodeModuleName], the bytecode for the given [accessor].
+ */
 private
-fun IO.emitClassFor(
+fun emitClassFor(
     accessor: Accessor,
-    srcDir: File,
-    binDir: File?,
     outputPackage: OutputPackage,
     format: AccessorFormat,
-    moduleName: String
-): InternalName {
+    bytecodeModuleName: String?
+): EmittedAccessor {
 
     val (simpleClassName, fragments) = fragmentsFor(accessor)
     val className = InternalName("${outputPackage.path}/$simpleClassName")
@@ -105,28 +106,48 @@ fun IO.emitClassFor(
         sourceCode.add(format(source))
     }
 
-    if (binDir != null) {
-        writeAccessorsBytecodeTo(
-            binDir,
-            className,
-            fragments,
-            ::collectSourceFragment,
-            moduleName
-        )
-    } else {
-        for ((source, _, _, _) in fragments) {
-            collectSourceFragment(source)
+    val classBytes =
+        if (bytecodeModuleName != null) {
+            accessorsBytecodeFor(
+                className,
+                fragments,
+                ::collectSourceFragment,
+                bytecodeModuleName
+            )
+        } else {
+            for ((source, _, _, _) in fragments) {
+                collectSourceFragment(source)
+            }
+            null
         }
+
+    return EmittedAccessor(
+        className,
+        sourceCode,
+        importsRequiredBy(accessor),
+        classBytes
+    )
+}
+
+
+private
+fun IO.writeEmittedAccessor(
+    emittedAccessor: EmittedAccessor,
+    srcDir: File,
+    binDir: File?,
+    outputPackage: OutputPackage
+) = emittedAccessor.run {
+
+    if (binDir != null && classBytes != null) {
+        writeFile(binDir.resolve("$className.class"), classBytes)
     }
 
     writeAccessorsTo(
         sourceFileFor(className, srcDir),
         sourceCode,
-        importsRequiredBy(accessor),
+        imports,
         outputPackage.name
     )
-
-    return className
 }
 
 
@@ -136,13 +157,12 @@ fun sourceFileFor(className: InternalName, srcDir: File) =
 
 
 private
-fun IO.writeAccessorsBytecodeTo(
-    binDir: File,
+fun accessorsBytecodeFor(
     className: InternalName,
     fragments: Sequence<AccessorFragment>,
     collectSourceFragment: (String) -> Unit,
     moduleName: String
-) {
+): ByteArray {
 
     val metadataWriter = beginFileFacadeClassHeader()
     val classWriter = beginPublicClass(className)
@@ -154,9 +174,7 @@ fun IO.writeAccessorsBytecodeTo(
     }
 
     val classHeader = metadataWriter.closeHeader(moduleName)
-    val classBytes = classWriter.endKotlinClass(classHeader)
-    val classFile = binDir.resolve("$className.class")
-    writeFile(classFile, classBytes)
+    return classWriter.endKotlinClass(classHeader)
 }
 
 
@@ -23,6 +23,7 @@ import org.gradle.cache.internal.InMemoryCacheDecoratorFactory
 import org.gradle.cache.scopes.GlobalScopedCache
 import org.gradle.internal.file.FileAccessTimeJournal
 import org.gradle.internal.hash.ClassLoaderHierarchyHasher
+import org.gradle.kotlin.dsl.accessors.EmittedAccessorCache
 
 
 internal
@@ -48,4 +49,8 @@ object GradleUserHomeServices {
             cacheConfigurations
         )
     }
+
+    @Suppress("unused")
+    fun createEmittedAccessorCache() =
+        EmittedAccessorCache()
 }
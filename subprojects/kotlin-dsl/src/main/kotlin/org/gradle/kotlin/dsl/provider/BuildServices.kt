@@ -149,10 +149,6 @@ object BuildServices {
             fileCollectionFactory
         )
 
-    @Suppress("unused")
-    fun createKotlinCompilerContextDisposer(listenerManager: ListenerManager) =
-        KotlinCompilerContextDisposer(listenerManager)
-
     private
     fun versionedJarCacheFor(jarCache: GeneratedGradleJarCache): JarCache =
         { id, creator -> jarCache[id, creator] }
@@ -25,4 +25,8 @@ object GradleUserHomeServices {
     fun createKotlinScriptClassloadingCache(
         cacheFactory: CrossBuildInMemoryCacheFactory
     ) = KotlinScriptClassloadingCache(cacheFactory)
+
+    @Suppress("unused")
+    fun createKotlinCompilerContextDisposer() =
+        KotlinCompilerContextDisposer()
 }
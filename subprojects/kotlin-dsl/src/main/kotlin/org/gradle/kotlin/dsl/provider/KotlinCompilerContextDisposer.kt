@@ -16,29 +16,21 @@
 
 package org.gradle.kotlin.dsl.provider
 
-import org.gradle.api.invocation.Gradle
-import org.gradle.internal.InternalBuildAdapter
 import org.gradle.internal.concurrent.Stoppable
-import org.gradle.internal.event.ListenerManager
 import org.gradle.kotlin.dsl.support.disposeKotlinCompilerContext
 
 
 /**
- * Disposes Kotlin compiler environment once all scripts are compiled.
+ * Disposes the Kotlin compiler environment once the daemon no longer needs it.
+ *
+ * The environment is kept between builds, so that scripts compiled by later builds
+ * do not pay for initializing the compiler again.
+ * The compiler still releases the archives it has opened once no compilation is running,
+ * so changed archives are read again by the next compilation.
  */
-class KotlinCompilerContextDisposer(
-    private val listenerManager: ListenerManager
-) : InternalBuildAdapter(), Stoppable {
-
-    init {
-        listenerManager.addListener(this)
-    }
+class KotlinCompilerContextDisposer : Stoppable {
 
     override fun stop() {
-        listenerManager.removeListener(this)
-    }
-
-    override fun projectsEvaluated(gradle: Gradle) {
         disposeKotlinCompilerContext()
     }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.kotlin.dsl.accessors
+
+import org.gradle.api.Project
+import org.gradle.api.tasks.Delete
+import org.gradle.api.tasks.SourceSetContainer
+import org.gradle.api.tasks.TaskContainer
+import org.gradle.kotlin.dsl.codegen.kotlinDslPackageName
+import org.gradle.kotlin.dsl.concurrent.withSynchronousIO
+import org.gradle.kotlin.dsl.fixtures.testRuntimeClassPath
+import org.gradle.kotlin.dsl.support.bytecode.InternalName
+
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.sameInstance
+import org.hamcrest.MatcherAssert.assertThat
+
+import org.junit.Test
+
+import java.io.File
+
+
+class EmittedAccessorCacheTest : TestWithClassPath() {
+
+    @Test
+    fun `emits each accessor once`() {
+
+        val cache = EmittedAccessorCache()
+        val accessor = Accessor.ForConfiguration(ConfigurationEntry(AccessorNameSpec("api")))
+        var emitted = 0
+
+        fun emittedAccessor() =
+            cache.emittedAccessorFor(accessor, OutputPackage(kotlinDslPackageName), AccessorFormats.default, "classes") {
+                emitted += 1
+                EmittedAccessor(InternalName("ApiConfigurationAccessorsKt"), listOf("source"), emptyList(), ByteArray(0))
+            }
+
+        val first = emittedAccessor()
+        val second = emittedAccessor()
+
+        assertThat(emitted, equalTo(1))
+        assertThat(second, sameInstance(first))
+    }
+
+    @Test
+    fun `emits accessors again for a different format`() {
+
+        val cache = EmittedAccessorCache()
+        val accessor = Accessor.ForConfiguration(ConfigurationEntry(AccessorNameSpec("api")))
+        var emitted = 0
+
+        for (format in listOf(AccessorFormats.default, AccessorFormats.internal)) {
+            cache.emittedAccessorFor(accessor, OutputPackage(kotlinDslPackageName), format, "classes") {
+                emitted += 1
+                EmittedAccessor(InternalName("ApiConfigurationAccessorsKt"), listOf("source"), emptyList(), ByteArray(0))
+            }
+        }
+
+        assertThat(emitted, equalTo(2))
+    }
+
+    @Test
+    fun `accessors built from cached fragments are identical to freshly built accessors`() {
+
+        val cache = EmittedAccessorCache()
+        val schema =
+            TypedProjectSchema(
+                extensions = listOf(entry<Project, SourceSetContainer>("sourceSets")),
+                containerElements = emptyList(),
+                conventions = emptyList(),
+                tasks = listOf(entry<TaskContainer, Delete>("clean")),
+                configurations = listOf(ConfigurationEntry("api"))
+            )
+        val changedSchema = schema.copy(
+            configurations = listOf(ConfigurationEntry("api"), ConfigurationEntry("implementation"))
+        )
+
+        val (freshSrc, freshBin) = accessorsBuiltFor(changedSchema, null, "fresh")
+        accessorsBuiltFor(schema, cache, "original")
+        val (cachedSrc, cachedBin) = accessorsBuiltFor(changedSchema, cache, "cached")
+
+        assertThat(contentsOf(cachedSrc), equalTo(contentsOf(freshSrc)))
+        assertThat(contentsOf(cachedBin), equalTo(contentsOf(freshBin)))
+    }
+
+    private
+    fun accessorsBuiltFor(schema: TypedProjectSchema, cache: EmittedAccessorCache?, workspace: String): Pair<File, File> {
+        val srcDir = newFolder(workspace, "sources")
+        val binDir = newFolder(workspace, "classes")
+        withSynchronousIO {
+            buildAccessorsFor(schema, testRuntimeClassPath, srcDir, binDir, emittedAccessorCache = cache)
+        }
+        return srcDir to binDir
+    }
+
+    private
+    fun contentsOf(dir: File): Map<String, List<Byte>> =
+        dir.walkTopDown()
+            .filter { it.isFile }
+            .associate { it.relativeTo(dir).path to it.readBytes().toList() }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.gradle.internal.concurrent.CompositeStoppable;
+
+import javax.annotation.Nullable;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps the file managers of finished compilations open, so that later compilations of the same build can reuse them.
+ *
+ * A javac file manager keeps the archives it has opened, along with their package index, for its whole lifetime.
+ * Reusing it saves opening and indexing the JDK modules and the classpath jars again for every compilation.
+ * The file manager never notices when an archive changes, or when a missing classpath entry appears, though.
+ * So each cached file manager remembers the size, modification time and file key of every classpath entry it has been used with,
+ * and is discarded once any of them has changed.
+ *
+ * javac only sets the locations of a file manager for the options that are present, so the locations are reset before a file manager
+ * is reused. Only a few file managers are kept idle, and a file manager which has opened many archives is closed instead of being kept.
+ * All idle file managers are closed when the cache is closed at the end of the build.
+ */
+public class JavaFileManagerCache implements Closeable {
+    private static final int MAX_IDLE_FILE_MANAGERS = 4;
+    private static final int MAX_RETAINED_ARCHIVES = 500;
+
+    /**
+     * Options that change how archives are read, in particular which versions of multi-release jars are used.
+     */
+    private static final List<String> KEY_OPTIONS = ImmutableList.of("--release", "-source", "--source", "-target", "--target", "--multi-release", "--system");
+
+    /**
+     * Options that set module oriented locations, which cannot be reset to their defaults afterwards.
+     */
+    private static final List<String> NON_REUSABLE_OPTIONS = ImmutableList.of("--module-source-path", "--patch-module");
+
+    /**
+     * The locations that javac sets from the compiler options, by name, as some of them only exist from Java 9 on.
+     */
+    private static final Set<String> RESETTABLE_LOCATIONS = ImmutableSet.of(
+        "CLASS_OUTPUT", "SOURCE_OUTPUT", "NATIVE_HEADER_OUTPUT",
+        "CLASS_PATH", "SOURCE_PATH", "ANNOTATION_PROCESSOR_PATH", "PLATFORM_CLASS_PATH",
+        "MODULE_PATH", "UPGRADE_MODULE_PATH", "ANNOTATION_PROCESSOR_MODULE_PATH"
+    );
+
+    /**
+     * The idle file managers, most recently released first.
+     */
+    private final Deque<CachedFileManager> idleFileManagers = new ArrayDeque<CachedFileManager>();
+    private boolean closed;
+
+    /**
+     * Returns an up-to-date file manager for a compilation with the given options and classpath. It must be handed back using {@link #release(CachedFileManager)}.
+     */
+    CachedFileManager acquire(JavaCompiler compiler, @Nullable Charset charset, List<String> options, Iterable<File> classpath) {
+        Key key = new Key(compiler.getClass(), charset, keyOptionsFrom(options));
+        CachedFileManager fileManager = takeReusable(key);
+        if (fileManager == null) {
+            fileManager = new CachedFileManager(key, compiler.getStandardFileManager(null, null, charset));
+        }
+        fileManager.reusable = isReusableWith(options);
+        fileManager.recordArchives(classpath);
+        return fileManager;
+    }
+
+    /**
+     * Makes the given file manager available to later compilations, or closes it when it should not be kept.
+     */
+    void release(CachedFileManager fileManager) {
+        CachedFileManager evicted = null;
+        synchronized (idleFileManagers) {
+            if (!closed && fileManager.reusable && fileManager.archives.size() <= MAX_RETAINED_ARCHIVES) {
+                idleFileManagers.push(fileManager);
+                if (idleFileManagers.size() <= MAX_IDLE_FILE_MANAGERS) {
+                    return;
+                }
+                evicted = idleFileManagers.removeLast();
+            } else {
+                evicted = fileManager;
+            }
+        }
+        evicted.close();
+    }
+
+    /**
+     * Closes all idle file managers. File managers released afterwards are closed right away.
+     */
+    @Override
+    public void close() {
+        List<CachedFileManager> toClose;
+        synchronized (idleFileManagers) {
+            closed = true;
+            toClose = new ArrayList<CachedFileManager>(idleFileManagers);
+            idleFileManagers.clear();
+        }
+        for (CachedFileManager fileManager : toClose) {
+            fileManager.close();
+        }
+    }
+
+    @Nullable
+    private CachedFileManager takeReusable(Key key) {
+        while (true) {
+            CachedFileManager candidate = takeIdle(key);
+            if (candidate == null) {
+                return null;
+            }
+            if (candidate.isUpToDate() && candidate.resetLocations()) {
+                return candidate;
+            }
+            candidate.close();
+        }
+    }
+
+    @Nullable
+    private CachedFileManager takeIdle(Key key) {
+        synchronized (idleFileManagers) {
+            Iterator<CachedFileManager> iterator = idleFileManagers.iterator();
+            while (iterator.hasNext()) {
+                CachedFileManager candidate = iterator.next();
+                if (candidate.key.equals(key)) {
+                    iterator.remove();
+                    return candidate;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static boolean isReusableWith(List<String> options) {
+        for (String option : options) {
+            for (String nonReusableOption : NON_REUSABLE_OPTIONS) {
+                if (option.equals(nonReusableOption) || option.startsWith(nonReusableOption + "=")) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static List<String> keyOptionsFrom(List<String> options) {
+        ImmutableList.Builder<String> keyOptions = ImmutableList.builder();
+        Iterator<String> iterator = options.iterator();
+        while (iterator.hasNext()) {
+            String option = iterator.next();
+            if (KEY_OPTIONS.contains(option) && iterator.hasNext()) {
+                keyOptions.add(option, iterator.next());
+            } else if (option.startsWith("--release=") || option.startsWith("--source=") || option.startsWith("--target=") || option.startsWith("--system=")) {
+                keyOptions.add(option);
+            }
+        }
+        return keyOptions.build();
+    }
+
+    static class CachedFileManager {
+        private final Key key;
+        private final StandardJavaFileManager fileManager;
+        private final Map<File, ArchiveState> archives = new HashMap<File, ArchiveState>();
+        private boolean reusable;
+
+        private CachedFileManager(Key key, StandardJavaFileManager fileManager) {
+            this.key = key;
+            this.fileManager = fileManager;
+        }
+
+        StandardJavaFileManager getFileManager() {
+            return fileManager;
+        }
+
+        private void recordArchives(Iterable<File> classpath) {
+            for (File file : classpath) {
+                if (!archives.containsKey(file)) {
+                    ArchiveState state = ArchiveState.of(file);
+                    if (state != null) {
+                        archives.put(file, state);
+                    }
+                }
+            }
+        }
+
+        private boolean isUpToDate() {
+            for (Map.Entry<File, ArchiveState> entry : archives.entrySet()) {
+                if (!entry.getValue().equals(ArchiveState.of(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Resets the locations set by the previous compilation to the defaults of a new file manager.
+         */
+        private boolean resetLocations() {
+            try {
+                for (StandardLocation location : StandardLocation.values()) {
+                    if (RESETTABLE_LOCATIONS.contains(location.name())) {
+                        fileManager.setLocation(location, null);
+                    }
+                }
+                return true;
+            } catch (IOException | RuntimeException e) {
+                return false;
+            }
+        }
+
+        private void close() {
+            CompositeStoppable.stoppable(fileManager).stop();
+        }
+    }
+
+    private static class ArchiveState {
+        private static final ArchiveState MISSING = new ArchiveState(-1, -1, null);
+
+        private final long size;
+        private final long lastModified;
+        private final Object fileKey;
+
+        private ArchiveState(long size, long lastModified, @Nullable Object fileKey) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fileKey = fileKey;
+        }
+
+        /**
+         * Returns the state of the given classpath entry, or null when it is a directory. Directories are listed afresh by javac for each compilation.
+         */
+        @Nullable
+        static ArchiveState of(File file) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+                if (attributes.isDirectory()) {
+                    return null;
+                }
+                return new ArchiveState(attributes.size(), attributes.lastModifiedTime().toMillis(), attributes.fileKey());
+            } catch (IOException e) {
+                return MISSING;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ArchiveState that = (ArchiveState) o;
+            return size == that.size && lastModified == that.lastModified && Objects.equals(fileKey, that.fileKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(size, lastModified, fileKey);
+        }
+    }
+
+    private static class Key {
+        private final Class<?> compilerType;
+        private final Charset charset;
+        private final List<String> options;
+
+        private Key(Class<?> compilerType, @Nullable Charset charset, List<String> options) {
+            this.compilerType = compilerType;
+            this.charset = charset;
+            this.options = options;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return compilerType.equals(key.compilerType) && Objects.equals(charset, key.charset) && options.equals(key.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(compilerType, charset, options);
+        }
+    }
+}
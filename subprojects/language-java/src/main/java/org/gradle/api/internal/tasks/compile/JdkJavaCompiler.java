@@ -21,28 +21,43 @@
 import org.gradle.api.tasks.WorkResult;
 import org.gradle.internal.Factory;
 import org.gradle.internal.classpath.DefaultClassPath;
+import org.gradle.internal.os.OperatingSystem;
 import org.gradle.language.base.internal.compile.Compiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
+import java.io.File;
 import java.io.Serializable;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
 public class JdkJavaCompiler implements Compiler<JavaCompileSpec>, Serializable {
     private static final Logger LOGGER = LoggerFactory.getLogger(JdkJavaCompiler.class);
+
     private final Factory<JavaCompiler> javaHomeBasedJavaCompilerFactory;
+    @Nullable
+    private final transient JavaFileManagerCache fileManagerCache;
 
     @Inject
     public JdkJavaCompiler(Factory<JavaCompiler> javaHomeBasedJavaCompilerFactory) {
+        this(javaHomeBasedJavaCompilerFactory, null);
+    }
+
+    /**
+     * Creates a compiler which reuses the file managers of the given cache, when not null.
+     */
+    public JdkJavaCompiler(Factory<JavaCompiler> javaHomeBasedJavaCompilerFactory, @Nullable JavaFileManagerCache fileManagerCache) {
         this.javaHomeBasedJavaCompilerFactory = javaHomeBasedJavaCompilerFactory;
+        this.fileManagerCache = fileManagerCache;
     }
 
     @Override
@@ -63,7 +78,15 @@ private JavaCompiler.CompilationTask createCompileTask(JavaCompileSpec spec, Api
         JavaCompiler compiler = javaHomeBasedJavaCompilerFactory.create();
         MinimalJavaCompileOptions compileOptions = spec.getCompileOptions();
         Charset charset = compileOptions.getEncoding() != null ? Charset.forName(compileOptions.getEncoding()) : null;
-        StandardJavaFileManager standardFileManager = compiler.getStandardFileManager(null, null, charset);
+        JavaFileManagerCache.CachedFileManager cachedFileManager = null;
+        StandardJavaFileManager standardFileManager;
+        // Compiler daemons create the compiler without a cache, as they outlive the build which closes the cache
+        if (fileManagerCache != null && canReuseFileManagers()) {
+            cachedFileManager = fileManagerCache.acquire(compiler, charset, options, classpathEntriesOf(spec));
+            standardFileManager = cachedFileManager.getFileManager();
+        } else {
+            standardFileManager = compiler.getStandardFileManager(null, null, charset);
+        }
         Iterable<? extends JavaFileObject> compilationUnits = standardFileManager.getJavaFileObjectsFromFiles(spec.getSourceFiles());
         boolean hasEmptySourcepaths = JavaVersion.current().isJava9Compatible() && emptySourcepathIn(options);
         JavaFileManager fileManager = GradleStandardJavaFileManager.wrap(standardFileManager, DefaultClassPath.of(spec.getAnnotationProcessorPath()), hasEmptySourcepaths);
@@ -73,10 +96,39 @@ private JavaCompiler.CompilationTask createCompileTask(JavaCompileSpec spec, Api
         }
         Set<AnnotationProcessorDeclaration> annotationProcessors = spec.getEffectiveAnnotationProcessors();
         task = new AnnotationProcessingCompileTask(task, annotationProcessors, spec.getAnnotationProcessorPath(), result.getAnnotationProcessingResult());
-        task = new ResourceCleaningCompilationTask(task, fileManager);
+        if (cachedFileManager != null) {
+            JavaFileManagerCache cache = fileManagerCache;
+            JavaFileManagerCache.CachedFileManager fileManagerToRelease = cachedFileManager;
+            task = new ResourceCleaningCompilationTask(task, () -> cache.release(fileManagerToRelease));
+        } else {
+            task = new ResourceCleaningCompilationTask(task, fileManager);
+        }
         return task;
     }
 
+    /**
+     * File managers are only reused from Java 9 on, where each file manager opens its own archives.
+     * Java 8 uses a process wide archive cache instead, which is cleared after each compilation.
+     * On Windows, archives held open by an idle file manager could not be deleted or overwritten.
+     */
+    private static boolean canReuseFileManagers() {
+        return JavaVersion.current().isJava9Compatible() && !OperatingSystem.current().isWindows();
+    }
+
+    private static List<File> classpathEntriesOf(JavaCompileSpec spec) {
+        List<File> entries = new ArrayList<File>(spec.getCompileClasspath());
+        entries.addAll(spec.getModulePath());
+        String bootClasspath = spec.getCompileOptions().getBootClasspath();
+        if (bootClasspath != null) {
+            for (String path : bootClasspath.split(File.pathSeparator)) {
+                if (!path.isEmpty()) {
+                    entries.add(new File(path));
+                }
+            }
+        }
+        return entries;
+    }
+
     private static boolean emptySourcepathIn(List<String> options) {
         Iterator<String> optionsIter = options.iterator();
         while (optionsIter.hasNext()) {
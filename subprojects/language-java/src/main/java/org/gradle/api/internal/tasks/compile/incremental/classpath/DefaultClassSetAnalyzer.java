@@ -16,8 +16,11 @@
 package org.gradle.api.internal.tasks.compile.incremental.classpath;
 
 import com.google.common.collect.ImmutableSet;
+import org.gradle.api.UncheckedIOException;
+import org.gradle.api.file.FileTreeElement;
 import org.gradle.api.file.FileVisitDetails;
 import org.gradle.api.file.FileVisitor;
+import org.gradle.api.file.RelativePath;
 import org.gradle.api.internal.file.FileOperations;
 import org.gradle.api.internal.tasks.compile.incremental.analyzer.ClassDependenciesAnalyzer;
 import org.gradle.api.internal.tasks.compile.incremental.deps.ClassAnalysis;
@@ -30,8 +33,12 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 import static org.gradle.internal.FileUtils.hasExtension;
 
@@ -101,15 +108,19 @@ public void visitFile(FileVisitDetails fileDetails) {
                 return;
             }
 
-            HashCode classFileHash = getHashCode(fileDetails);
+            visitClassFile(fileDetails);
+        }
+
+        protected abstract void visitClassFile(FileVisitDetails fileDetails);
 
+        protected void addClass(HashCode classFileHash, FileTreeElement classFile) {
             try {
-                ClassAnalysis analysis = maybeStripToAbi(analyzer.getClassAnalysis(classFileHash, fileDetails));
+                ClassAnalysis analysis = maybeStripToAbi(analyzer.getClassAnalysis(classFileHash, classFile));
                 accumulator.addClass(analysis, classFileHash);
             } catch (Exception e) {
-                accumulator.fullRebuildNeeded(fileDetails.getName() + " could not be analyzed for incremental compilation. See the debug log for more details");
+                accumulator.fullRebuildNeeded(classFile.getName() + " could not be analyzed for incremental compilation. See the debug log for more details");
                 if (LOGGER.isDebugEnabled()) {
-                    LOGGER.debug("Could not analyze " + fileDetails.getName() + " for incremental compilation", e);
+                    LOGGER.debug("Could not analyze " + classFile.getName() + " for incremental compilation", e);
                 }
             }
         }
@@ -121,8 +132,6 @@ private ClassAnalysis maybeStripToAbi(ClassAnalysis analysis) {
                 return analysis;
             }
         }
-
-        protected abstract HashCode getHashCode(FileVisitDetails fileDetails);
     }
 
     private class JarEntryVisitor extends EntryVisitor {
@@ -131,14 +140,22 @@ public JarEntryVisitor(ClassDependentsAccumulator accumulator, boolean abiOnly)
             super(accumulator, abiOnly);
         }
 
+        /**
+         * Reads the entry only once, as inflating it again is about as expensive as analyzing it when the analysis is not cached yet.
+         */
         @Override
-        protected HashCode getHashCode(FileVisitDetails fileDetails) {
+        protected void visitClassFile(FileVisitDetails fileDetails) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream(fileDetails.getSize() > 0 ? (int) fileDetails.getSize() : 8192);
             InputStream inputStream = fileDetails.open();
+            HashCode classFileHash;
             try {
-                return hasher.hash(inputStream);
+                classFileHash = hasher.hashCopy(inputStream, content);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             } finally {
                 IoActions.closeQuietly(inputStream);
             }
+            addClass(classFileHash, new ReadClassFile(fileDetails, content.toByteArray()));
         }
     }
 
@@ -149,8 +166,85 @@ public DirectoryEntryVisitor(ClassDependentsAccumulator accumulator, boolean abi
         }
 
         @Override
-        protected HashCode getHashCode(FileVisitDetails fileDetails) {
-            return fileHasher.hash(fileDetails.getFile(), fileDetails.getSize(), fileDetails.getLastModified());
+        protected void visitClassFile(FileVisitDetails fileDetails) {
+            addClass(fileHasher.hash(fileDetails.getFile(), fileDetails.getSize(), fileDetails.getLastModified()), fileDetails);
+        }
+    }
+
+    /**
+     * A class file entry whose content has already been read.
+     */
+    private static class ReadClassFile implements FileTreeElement {
+        private final FileVisitDetails details;
+        private final byte[] content;
+
+        public ReadClassFile(FileVisitDetails details, byte[] content) {
+            this.details = details;
+            this.content = content;
+        }
+
+        @Override
+        public File getFile() {
+            return details.getFile();
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return false;
+        }
+
+        @Override
+        public long getLastModified() {
+            return details.getLastModified();
+        }
+
+        @Override
+        public long getSize() {
+            return content.length;
+        }
+
+        @Override
+        public InputStream open() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public void copyTo(OutputStream output) {
+            try {
+                output.write(content);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean copyTo(File target) {
+            return details.copyTo(target);
+        }
+
+        @Override
+        public String getName() {
+            return details.getName();
+        }
+
+        @Override
+        public String getPath() {
+            return details.getPath();
+        }
+
+        @Override
+        public RelativePath getRelativePath() {
+            return details.getRelativePath();
+        }
+
+        @Override
+        public int getMode() {
+            return details.getMode();
+        }
+
+        @Override
+        public String toString() {
+            return details.toString();
         }
     }
 
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.tasks.compile
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import javax.tools.StandardLocation
+import javax.tools.ToolProvider
+import java.nio.charset.StandardCharsets
+import java.util.jar.JarOutputStream
+
+class JavaFileManagerCacheTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider temp = new TestNameTestDirectoryProvider(getClass())
+
+    def compiler = ToolProvider.systemJavaCompiler
+    def cache = new JavaFileManagerCache()
+
+    def "reuses released file manager"() {
+        def jar = temp.file("lib.jar").createFile()
+
+        when:
+        def first = cache.acquire(compiler, null, [], [jar])
+        cache.release(first)
+        def second = cache.acquire(compiler, null, [], [jar, temp.file("classes").createDir()])
+
+        then:
+        second.fileManager.is(first.fileManager)
+    }
+
+    def "does not share file manager between concurrent compilations"() {
+        when:
+        def first = cache.acquire(compiler, null, [], [])
+        def second = cache.acquire(compiler, null, [], [])
+
+        then:
+        !second.fileManager.is(first.fileManager)
+    }
+
+    def "does not reuse file manager once a classpath archive has changed"() {
+        def jar = temp.file("lib.jar")
+        jar.text = "original"
+
+        when:
+        def first = cache.acquire(compiler, null, [], [jar])
+        cache.release(first)
+        jar.text = "changed content"
+        def second = cache.acquire(compiler, null, [], [])
+
+        then:
+        !second.fileManager.is(first.fileManager)
+    }
+
+    def "does not reuse file manager once a missing classpath entry has appeared"() {
+        def jar = temp.file("lib.jar")
+
+        when:
+        def first = cache.acquire(compiler, null, [], [jar])
+        cache.release(first)
+        jar.createFile()
+        def second = cache.acquire(compiler, null, [], [jar])
+
+        then:
+        !second.fileManager.is(first.fileManager)
+    }
+
+    def "does not reuse file manager for different #description"() {
+        when:
+        def first = cache.acquire(compiler, null, ["-classpath", "a.jar", "--release", "11"], [])
+        cache.release(first)
+        def second = cache.acquire(compiler, charset, options, [])
+
+        then:
+        !second.fileManager.is(first.fileManager)
+
+        where:
+        description | charset                | options
+        "release"   | null                   | ["-classpath", "a.jar", "--release", "17"]
+        "charset"   | StandardCharsets.UTF_8 | ["-classpath", "a.jar", "--release", "11"]
+    }
+
+    def "reuses file manager for a different classpath"() {
+        when:
+        def first = cache.acquire(compiler, null, ["-classpath", "a.jar", "--release", "11"], [])
+        cache.release(first)
+        def second = cache.acquire(compiler, null, ["-classpath", "b.jar", "--release", "11"], [])
+
+        then:
+        second.fileManager.is(first.fileManager)
+    }
+
+    def "does not leak locations of a previous compilation into the next one"() {
+        def jar = temp.file("lib.jar")
+        classesJar(jar)
+        def generatedSources = temp.file("generated").createDir()
+        def source = temp.file("src/A.java")
+        source.text = "class A {}"
+
+        when:
+        def first = cache.acquire(compiler, null, [], [jar])
+        compile(first, ["-s", generatedSources.path, "-classpath", jar.path, "-d", temp.file("classes1").createDir().path], source)
+        cache.release(first)
+        def second = cache.acquire(compiler, null, [], [])
+        compile(second, ["-d", temp.file("classes2").createDir().path], source)
+
+        then:
+        second.fileManager.is(first.fileManager)
+        second.fileManager.getLocation(StandardLocation.SOURCE_OUTPUT) == null
+        second.fileManager.getLocation(StandardLocation.NATIVE_HEADER_OUTPUT) == null
+        !second.fileManager.getLocation(StandardLocation.CLASS_PATH).contains(jar)
+    }
+
+    def "does not reuse file manager used with module oriented locations that cannot be reset"() {
+        when:
+        def first = cache.acquire(compiler, null, ["--patch-module", "a=b"], [])
+        cache.release(first)
+        def second = cache.acquire(compiler, null, [], [])
+
+        then:
+        !second.fileManager.is(first.fileManager)
+    }
+
+    def "does not keep file manager which has opened many archives"() {
+        def archives = (0..500).collect { temp.file("lib${it}.jar") }
+
+        when:
+        def first = cache.acquire(compiler, null, [], archives)
+        cache.release(first)
+        def second = cache.acquire(compiler, null, [], [])
+
+        then:
+        !second.fileManager.is(first.fileManager)
+    }
+
+    def "keeps a bounded number of idle file managers"() {
+        when:
+        def fileManagers = (1..5).collect { cache.acquire(compiler, null, [], []) }
+        fileManagers.each { cache.release(it) }
+        def reused = (1..5).collect { cache.acquire(compiler, null, [], []) }
+
+        then:
+        reused.count { candidate -> fileManagers.any { it.fileManager.is(candidate.fileManager) } } == 4
+        !reused.any { it.fileManager.is(fileManagers[0].fileManager) }
+    }
+
+    def "does not reuse file managers once closed"() {
+        when:
+        def first = cache.acquire(compiler, null, [], [])
+        cache.release(first)
+        cache.close()
+        def second = cache.acquire(compiler, null, [], [])
+        cache.release(second)
+        def third = cache.acquire(compiler, null, [], [])
+
+        then:
+        !second.fileManager.is(first.fileManager)
+        !third.fileManager.is(second.fileManager)
+    }
+
+    private void compile(JavaFileManagerCache.CachedFileManager cachedFileManager, List<String> options, File source) {
+        def fileManager = cachedFileManager.fileManager
+        assert compiler.getTask(null, fileManager, null, options + ["-proc:none"], null, fileManager.getJavaFileObjects(source)).call()
+    }
+
+    private static void classesJar(File jar) {
+        new JarOutputStream(new FileOutputStream(jar)).close()
+    }
+}
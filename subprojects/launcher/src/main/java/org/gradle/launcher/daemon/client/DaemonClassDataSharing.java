@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.launcher.daemon.client;
+
+import org.gradle.api.JavaVersion;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.util.GradleVersion;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Determines the JVM arguments that make a daemon JVM use a dynamic class data sharing (CDS) archive.
+ *
+ * <p>The archive is created on the first daemon start, and recreated whenever it no longer matches the JVM or the classpath, by the JVM
+ * itself using {@code -XX:+AutoCreateSharedArchive}. Subsequent daemons map the Gradle classes from the archive instead of loading
+ * and verifying them again.</p>
+ *
+ * <p>There is one archive per JVM installation, stored in the version specific cache directory so that it is deleted along with the other
+ * caches of this Gradle version once that version is no longer used.</p>
+ */
+class DaemonClassDataSharing {
+    /**
+     * Set this system property to {@code false} to not use a class data sharing archive for new daemons.
+     */
+    static final String ENABLED_PROPERTY = "org.gradle.internal.daemon.cds";
+
+    private static final List<String> CONFLICTING_JVM_ARGS = Arrays.asList(
+        "-Xshare:",
+        "-XX:SharedArchiveFile",
+        "-XX:ArchiveClassesAtExit",
+        "-XX:-AutoCreateSharedArchive",
+        "-XX:DumpLoadedClassList"
+    );
+
+    private final File gradleUserHomeDir;
+
+    DaemonClassDataSharing(File gradleUserHomeDir) {
+        this.gradleUserHomeDir = gradleUserHomeDir;
+    }
+
+    /**
+     * Returns the additional arguments to start a daemon with, or an empty list when the JVM does not support automatically created archives
+     * or the user already configures class data sharing.
+     */
+    List<String> getJvmArgs(File javaHome, JavaVersion javaVersion, List<String> daemonOpts) {
+        if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return Collections.emptyList();
+        }
+        if (!javaVersion.isCompatibleWith(JavaVersion.VERSION_19)) {
+            return Collections.emptyList();
+        }
+        for (String daemonOpt : daemonOpts) {
+            for (String conflictingArg : CONFLICTING_JVM_ARGS) {
+                if (daemonOpt.startsWith(conflictingArg)) {
+                    return Collections.emptyList();
+                }
+            }
+        }
+        return Arrays.asList("-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=" + getArchiveFile(javaHome).getAbsolutePath());
+    }
+
+    File getArchiveFile(File javaHome) {
+        File versionedCacheDir = new File(new File(gradleUserHomeDir, "caches"), GradleVersion.current().getVersion());
+        String jvmKey = Hashing.hashString(javaHome.getAbsolutePath()).toCompactString();
+        return new File(new File(versionedCacheDir, "cds"), "daemon-" + jvmKey + ".jsa");
+    }
+}
@@ -16,6 +16,7 @@
 package org.gradle.launcher.daemon.client;
 
 import org.gradle.api.GradleException;
+import org.gradle.api.JavaVersion;
 import org.gradle.api.UncheckedIOException;
 import org.gradle.api.internal.classpath.DefaultModuleRegistry;
 import org.gradle.api.internal.classpath.ModuleRegistry;
@@ -89,7 +90,7 @@ public DaemonStartupInfo startDaemon(boolean singleUse) {
             throw new IllegalStateException("Unable to construct a bootstrap classpath when starting the daemon");
         }
 
-        versionValidator.validate(daemonParameters);
+        JavaVersion javaVersion = versionValidator.validate(daemonParameters);
 
         List<String> daemonArgs = new ArrayList<String>();
         daemonArgs.addAll(getPriorityArgs(daemonParameters.getPriority()));
@@ -97,6 +98,7 @@ public DaemonStartupInfo startDaemon(boolean singleUse) {
 
         List<String> daemonOpts = daemonParameters.getEffectiveJvmArgs();
         daemonArgs.addAll(daemonOpts);
+        daemonArgs.addAll(getClassDataSharingArgs(javaVersion, daemonOpts));
         daemonArgs.add("-cp");
         daemonArgs.add(CollectionUtils.join(File.pathSeparator, classpath.getAsFiles()));
 
@@ -142,6 +144,17 @@ public DaemonStartupInfo startDaemon(boolean singleUse) {
         );
     }
 
+    private List<String> getClassDataSharingArgs(JavaVersion javaVersion, List<String> daemonOpts) {
+        DaemonClassDataSharing classDataSharing = new DaemonClassDataSharing(daemonParameters.getGradleUserHomeDir());
+        File javaHome = daemonParameters.getEffectiveJvm().getJavaHome();
+        List<String> args = classDataSharing.getJvmArgs(javaHome, javaVersion, daemonOpts);
+        if (!args.isEmpty()) {
+            // The JVM creates the archive, but not the directory containing it
+            GFileUtils.mkdirs(classDataSharing.getArchiveFile(javaHome).getParentFile());
+        }
+        return args;
+    }
+
     private List<String> getPriorityArgs(DaemonParameters.Priority priority) {
         if (priority == DaemonParameters.Priority.NORMAL) {
             return Collections.emptyList();
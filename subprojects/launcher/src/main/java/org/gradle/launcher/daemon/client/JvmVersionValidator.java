@@ -29,12 +29,18 @@ public JvmVersionValidator(JvmVersionDetector versionDetector) {
         this.versionDetector = versionDetector;
     }
 
-    public void validate(DaemonParameters parameters) {
+    /**
+     * Validates that the effective JVM of the given parameters can run Gradle.
+     *
+     * @return the Java version of the effective JVM
+     */
+    public JavaVersion validate(DaemonParameters parameters) {
         if (parameters.getEffectiveJvm().equals(Jvm.current())) {
-            return;
+            return JavaVersion.current();
         }
 
         JavaVersion javaVersion = versionDetector.getJavaVersion(parameters.getEffectiveJvm());
         UnsupportedJavaRuntimeException.assertUsingVersion("Gradle", JavaVersion.VERSION_1_8, javaVersion);
+        return javaVersion;
     }
 }
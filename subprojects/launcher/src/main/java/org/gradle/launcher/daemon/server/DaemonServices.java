@@ -170,7 +170,9 @@ protected Daemon createDaemon(ImmutableList<DaemonCommandAction> actions, Serial
             new DaemonTcpServerConnector(
                 get(ExecutorFactory.class),
                 get(InetAddressFactory.class),
-                DaemonMessageSerializer.create(buildActionSerializer)
+                DaemonMessageSerializer.create(buildActionSerializer),
+                // Outside of the versioned directory, to keep the socket paths short
+                new File(get(DaemonDir.class).getBaseDir(), "sockets")
             ),
             get(DaemonRegistry.class),
             get(DaemonContext.class),
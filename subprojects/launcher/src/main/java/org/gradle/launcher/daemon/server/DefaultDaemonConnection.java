@@ -37,7 +37,9 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -139,6 +141,15 @@ public void logEvent(OutputEvent logEvent) {
         connection.dispatchAndFlush(new OutputMessage(logEvent));
     }
 
+    @Override
+    public void logEvents(List<OutputEvent> logEvents) {
+        List<OutputMessage> messages = new ArrayList<OutputMessage>(logEvents.size());
+        for (OutputEvent logEvent : logEvents) {
+            messages.add(new OutputMessage(logEvent));
+        }
+        connection.dispatchAllAndFlush(messages);
+    }
+
     @Override
     public void event(Object event) {
         connection.dispatchAndFlush(new BuildEvent(event));
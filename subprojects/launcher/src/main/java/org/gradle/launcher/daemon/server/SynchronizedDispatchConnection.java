@@ -23,6 +23,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -63,6 +64,30 @@ public void dispatchAndFlush(T message) {
         }
     }
 
+    /**
+     * Dispatches the given messages, in order, and then flushes once.
+     */
+    public void dispatchAllAndFlush(List<? extends T> messages) {
+        lock.lock();
+        try {
+            if (dispatching) {
+                // Safety check: dispatching a message should not cause the thread to dispatch another message (eg should not do any logging)
+                throw new IllegalStateException("This thread is already dispatching a message.");
+            }
+            dispatching = true;
+            try {
+                for (T message : messages) {
+                    delegate.dispatch(message);
+                }
+                delegate.flush();
+            } finally {
+                dispatching = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
     @Override
     public T receive() {
         //in case one wants to synchronize this method,
@@ -30,6 +30,7 @@
 import org.gradle.launcher.daemon.server.api.DaemonCommandExecution;
 import org.gradle.launcher.daemon.server.api.DaemonConnection;
 
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
@@ -37,6 +38,7 @@
 public class LogToClient extends BuildCommandOnly {
 
     public static final String DISABLE_OUTPUT = "org.gradle.daemon.disable-output";
+    private static final int MAX_BATCH_SIZE = 1000;
     private static final Logger LOGGER = Logging.getLogger(LogToClient.class);
 
     private final LoggingOutputInternal loggingOutput;
@@ -69,6 +71,7 @@ protected void doBuild(final DaemonCommandExecution execution, Build build) {
     private class AsynchronousLogDispatcher extends Thread {
         private final CountDownLatch completionLock = new CountDownLatch(1);
         private final Queue<OutputEvent> eventQueue = new ConcurrentLinkedQueue<OutputEvent>();
+        private final OutputEventBatch batch = new OutputEventBatch();
         private final DaemonConnection connection;
         private final OutputEventListener listener;
         private volatile boolean shouldStop;
@@ -109,7 +112,7 @@ public void run() {
                     if (event == null) {
                         Thread.sleep(10);
                     } else {
-                        dispatchAsync(event);
+                        dispatchBatchStartingWith(event);
                     }
                 }
             } catch (InterruptedException ex) {
@@ -125,16 +128,28 @@ public void run() {
         private void sendRemainingEvents() {
             OutputEvent event;
             while ((event = eventQueue.poll()) != null) {
-                dispatchAsync(event);
+                dispatchBatchStartingWith(event);
             }
         }
 
-        private void dispatchAsync(OutputEvent event) {
+        /**
+         * Sends the given event along with whatever else has been queued since, so that a burst of events is written to the connection at once.
+         */
+        private void dispatchBatchStartingWith(OutputEvent first) {
+            batch.add(first);
+            OutputEvent event;
+            while (batch.size() < MAX_BATCH_SIZE && (event = eventQueue.poll()) != null) {
+                batch.add(event);
+            }
+            dispatchAsync(batch.drain());
+        }
+
+        private void dispatchAsync(List<OutputEvent> events) {
             if (unableToSend) {
                 return;
             }
             try {
-                connection.logEvent(event);
+                connection.logEvents(events);
             } catch (Exception ex) {
                 shouldStop = true;
                 unableToSend = true;
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.launcher.daemon.server.exec;
+
+import org.gradle.internal.logging.events.OutputEvent;
+import org.gradle.internal.logging.events.ProgressEvent;
+import org.gradle.internal.operations.OperationIdentifier;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects output events to send to the client together.
+ *
+ * A progress event replaces any earlier progress event for the same operation in the batch,
+ * as the client only displays the most recent status of an operation.
+ */
+class OutputEventBatch {
+    private final List<OutputEvent> events = new ArrayList<OutputEvent>();
+    private final Map<OperationIdentifier, Integer> progressEventIndexes = new HashMap<OperationIdentifier, Integer>();
+    private int replaced;
+
+    public void add(OutputEvent event) {
+        if (event instanceof ProgressEvent) {
+            Integer previous = progressEventIndexes.put(((ProgressEvent) event).getProgressOperationId(), events.size());
+            if (previous != null) {
+                events.set(previous, null);
+                replaced++;
+            }
+        }
+        events.add(event);
+    }
+
+    /**
+     * Returns the number of events that will be sent.
+     */
+    public int size() {
+        return events.size() - replaced;
+    }
+
+    /**
+     * Returns the events to send, in order, and empties this batch.
+     */
+    public List<OutputEvent> drain() {
+        List<OutputEvent> result = new ArrayList<OutputEvent>(size());
+        for (OutputEvent event : events) {
+            if (event != null) {
+                result.add(event);
+            }
+        }
+        events.clear();
+        progressEventIndexes.clear();
+        replaced = 0;
+        return result;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.launcher.daemon.client
+
+import org.gradle.api.JavaVersion
+import org.gradle.util.GradleVersion
+import spock.lang.Specification
+
+class DaemonClassDataSharingTest extends Specification {
+    def userHome = new File("user-home").absoluteFile
+    def javaHome = new File("java-home").absoluteFile
+    def classDataSharing = new DaemonClassDataSharing(userHome)
+
+    def "uses an automatically created archive in the version specific cache directory"() {
+        when:
+        def args = classDataSharing.getJvmArgs(javaHome, JavaVersion.VERSION_19, ["-Xmx1g"])
+        def archive = classDataSharing.getArchiveFile(javaHome)
+
+        then:
+        args == ["-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=${archive.absolutePath}".toString()]
+        archive.parentFile == new File(userHome, "caches/${GradleVersion.current().version}/cds")
+    }
+
+    def "uses a separate archive per JVM installation"() {
+        expect:
+        classDataSharing.getArchiveFile(javaHome) != classDataSharing.getArchiveFile(new File("other-java-home").absoluteFile)
+        classDataSharing.getArchiveFile(javaHome) == classDataSharing.getArchiveFile(javaHome)
+    }
+
+    def "does not use an archive for Java #javaVersion"() {
+        expect:
+        classDataSharing.getJvmArgs(javaHome, javaVersion, []).empty
+
+        where:
+        javaVersion << [JavaVersion.VERSION_1_8, JavaVersion.VERSION_11, JavaVersion.VERSION_17, JavaVersion.VERSION_18]
+    }
+
+    def "does not use an archive when the daemon JVM args configure class data sharing with #arg"() {
+        expect:
+        classDataSharing.getJvmArgs(javaHome, JavaVersion.VERSION_19, ["-Xmx1g", arg]).empty
+
+        where:
+        arg << ["-Xshare:off", "-XX:SharedArchiveFile=some.jsa", "-XX:ArchiveClassesAtExit=some.jsa", "-XX:-AutoCreateSharedArchive"]
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.launcher.daemon.server.exec
+
+import org.gradle.api.logging.LogLevel
+import org.gradle.internal.logging.events.LogEvent
+import org.gradle.internal.logging.events.ProgressCompleteEvent
+import org.gradle.internal.logging.events.ProgressEvent
+import org.gradle.internal.operations.OperationIdentifier
+import spock.lang.Specification
+
+class OutputEventBatchTest extends Specification {
+    def batch = new OutputEventBatch()
+    def op1 = new OperationIdentifier(1)
+    def op2 = new OperationIdentifier(2)
+
+    def "keeps events in order"() {
+        def log1 = log("one")
+        def progress = new ProgressEvent(op1, "status", false)
+        def log2 = log("two")
+
+        when:
+        batch.add(log1)
+        batch.add(progress)
+        batch.add(log2)
+
+        then:
+        batch.size() == 3
+        batch.drain() == [log1, progress, log2]
+    }
+
+    def "replaces earlier progress events for the same operation"() {
+        def first = new ProgressEvent(op1, "1%", false)
+        def other = new ProgressEvent(op2, "other", false)
+        def log = log("message")
+        def second = new ProgressEvent(op1, "50%", false)
+        def complete = new ProgressCompleteEvent(op1, 0, "done", false)
+
+        when:
+        batch.add(first)
+        batch.add(other)
+        batch.add(log)
+        batch.add(second)
+        batch.add(complete)
+
+        then:
+        batch.size() == 4
+        batch.drain() == [other, log, second, complete]
+    }
+
+    def "drain empties the batch"() {
+        def first = new ProgressEvent(op1, "1%", false)
+        def second = new ProgressEvent(op1, "50%", false)
+
+        when:
+        batch.add(first)
+        batch.drain()
+        batch.add(second)
+
+        then:
+        batch.size() == 1
+        batch.drain() == [second]
+        batch.size() == 0
+        batch.drain() == []
+    }
+
+    private static LogEvent log(String message) {
+        return new LogEvent(0, "category", LogLevel.LIFECYCLE, message, null)
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.event;
+
+import org.gradle.internal.service.scopes.EventScope;
+import org.gradle.internal.service.scopes.Scopes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of notifying listeners through a {@link ListenerBroadcast} and through the broadcaster of a {@link DefaultListenerManager}.
+ *
+ * Run with {@code -prof gc} to see the allocation rate per notification.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ListenerNotificationBenchmark {
+
+    @Param({"1", "4"})
+    int listenerCount;
+
+    private TestListener broadcast;
+    private TestListener managerBroadcast;
+    private long event;
+
+    @Setup
+    public void setup() {
+        ListenerBroadcast<TestListener> listenerBroadcast = new ListenerBroadcast<TestListener>(TestListener.class);
+        DefaultListenerManager listenerManager = new DefaultListenerManager(Scopes.BuildTree.class);
+        for (int i = 0; i < listenerCount; i++) {
+            listenerBroadcast.add(new CountingListener());
+            listenerManager.addListener(new CountingListener());
+        }
+        broadcast = listenerBroadcast.getSource();
+        managerBroadcast = listenerManager.getBroadcaster(TestListener.class);
+    }
+
+    @Benchmark
+    public void listenerBroadcast() {
+        broadcast.onEvent(event++);
+    }
+
+    @Benchmark
+    public void listenerManager() {
+        managerBroadcast.onEvent(event++);
+    }
+
+    @EventScope(Scopes.BuildTree.class)
+    public interface TestListener {
+        void onEvent(long event);
+    }
+
+    private static class CountingListener implements TestListener {
+        long total;
+
+        @Override
+        public void onEvent(long event) {
+            total += event;
+        }
+    }
+}
@@ -71,6 +71,11 @@ private DispatchingInvocationHandler(Class<?> type, Dispatch<? super MethodInvoc
 
         @Override
         public Object invoke(Object target, Method method, Object[] parameters) throws Throwable {
+            if (method.getDeclaringClass() != Object.class) {
+                // Still allocates a MethodInvocation per call, as every dispatch between here and the listener works with one
+                dispatch.dispatch(new MethodInvocation(method, parameters));
+                return null;
+            }
             if (method.getName().equals("equals")) {
                 Object parameter = parameters[0];
                 if (parameter == null || !Proxy.isProxyClass(parameter.getClass())) {
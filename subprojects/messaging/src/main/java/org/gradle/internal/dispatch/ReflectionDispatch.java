@@ -20,9 +20,17 @@
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 
 public class ReflectionDispatch implements Dispatch<MethodInvocation> {
+    private static final int MAX_ACCESSIBLE_METHODS = 16;
+
     private final Object target;
+    /**
+     * The methods which have already been made accessible. A proxy passes the same Method instance for every call of a method,
+     * so the methods are compared by identity. Only a few methods are remembered, as a target usually implements only a few.
+     */
+    private volatile Method[] accessibleMethods = new Method[0];
 
     public ReflectionDispatch(Object target) {
         this.target = target;
@@ -32,7 +40,7 @@ public ReflectionDispatch(Object target) {
     public void dispatch(MethodInvocation message) {
         try {
             Method method = message.getMethod();
-            method.setAccessible(true);
+            makeAccessible(method);
             method.invoke(target, message.getArguments());
         } catch (InvocationTargetException e) {
             throw UncheckedException.throwAsUncheckedException(e.getCause());
@@ -40,4 +48,20 @@ public void dispatch(MethodInvocation message) {
             throw UncheckedException.throwAsUncheckedException(throwable);
         }
     }
+
+    private void makeAccessible(Method method) {
+        Method[] methods = accessibleMethods;
+        for (Method accessibleMethod : methods) {
+            if (accessibleMethod == method) {
+                return;
+            }
+        }
+        method.setAccessible(true);
+        if (methods.length < MAX_ACCESSIBLE_METHODS) {
+            // Losing a concurrent update only means that a method is made accessible again
+            Method[] updated = Arrays.copyOf(methods, methods.length + 1);
+            updated[methods.length] = method;
+            accessibleMethods = updated;
+        }
+    }
 }
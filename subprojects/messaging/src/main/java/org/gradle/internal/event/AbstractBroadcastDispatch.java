@@ -23,7 +23,6 @@
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
 
 public abstract class AbstractBroadcastDispatch<T> implements Dispatch<MethodInvocation> {
@@ -66,7 +65,7 @@ protected void dispatch(MethodInvocation invocation, List<? extends Dispatch<Met
                 dispatch(invocation, dispatchers.get(0));
                 break;
             default:
-                dispatch(invocation, dispatchers.iterator());
+                dispatchToAll(invocation, dispatchers);
                 break;
         }
     }
@@ -74,11 +73,12 @@ protected void dispatch(MethodInvocation invocation, List<? extends Dispatch<Met
     /**
      * Dispatch an invocation to multiple handlers.
      */
-    private void dispatch(MethodInvocation invocation, Iterator<? extends Dispatch<MethodInvocation>> handlers) {
+    private void dispatchToAll(MethodInvocation invocation, List<? extends Dispatch<MethodInvocation>> handlers) {
         // Defer creation of failures list, assume dispatch will succeed
         List<Throwable> failures = null;
-        while (handlers.hasNext()) {
-            Dispatch<MethodInvocation> handler = handlers.next();
+        // Use indexed access rather than an iterator, as this happens for every event and the lists are all random access
+        for (int i = 0; i < handlers.size(); i++) {
+            Dispatch<MethodInvocation> handler = handlers.get(i);
             try {
                 handler.dispatch(invocation);
             } catch (ListenerNotificationException e) {
@@ -347,7 +347,8 @@ private List<Dispatch<MethodInvocation>> startNotification(boolean includeLogger
         }
 
         private void doStartNotification(List<Dispatch<MethodInvocation>> result) {
-            for (Dispatch<MethodInvocation> dispatch : result) {
+            for (int i = 0; i < result.size(); i++) {
+                Dispatch<MethodInvocation> dispatch = result.get(i);
                 if (dispatch instanceof ListenerDetails) {
                     ListenerDetails listenerDetails = (ListenerDetails) dispatch;
                     listenerDetails.startNotification();
@@ -398,7 +399,8 @@ private List<Dispatch<MethodInvocation>> buildAllWithLogger() {
         }
 
         private void endNotification(List<Dispatch<MethodInvocation>> dispatchers) {
-            for (Dispatch<MethodInvocation> dispatcher : dispatchers) {
+            for (int i = 0; i < dispatchers.size(); i++) {
+                Dispatch<MethodInvocation> dispatcher = dispatchers.get(i);
                 if (dispatcher instanceof ListenerDetails) {
                     ListenerDetails listener = (ListenerDetails) dispatcher;
                     listener.endNotification();
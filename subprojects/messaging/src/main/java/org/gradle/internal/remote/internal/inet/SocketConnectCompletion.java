@@ -21,6 +21,7 @@
 import org.gradle.internal.serialize.StatefulSerializer;
 import org.gradle.internal.remote.internal.ConnectCompletion;
 
+import java.io.IOException;
 import java.nio.channels.SocketChannel;
 
 class SocketConnectCompletion implements ConnectCompletion {
@@ -32,7 +33,11 @@ public SocketConnectCompletion(SocketChannel socket) {
 
     @Override
     public String toString() {
-        return socket.socket().getLocalSocketAddress() + " to " + socket.socket().getRemoteSocketAddress();
+        try {
+            return socket.getLocalAddress() + " to " + socket.getRemoteAddress();
+        } catch (IOException e) {
+            return socket.toString();
+        }
     }
 
     @Override
@@ -26,28 +26,51 @@
 import org.gradle.internal.remote.ConnectionAcceptor;
 import org.gradle.internal.remote.internal.ConnectCompletion;
 import org.gradle.internal.remote.internal.IncomingConnector;
+import org.gradle.util.internal.GFileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 public class TcpIncomingConnector implements IncomingConnector {
     private static final Logger LOGGER = LoggerFactory.getLogger(TcpIncomingConnector.class);
+    private static final String SOCKET_FILE_SUFFIX = ".sock";
+    private static final String LOCK_FILE_SUFFIX = ".lock";
     private final ExecutorFactory executorFactory;
     private final InetAddressFactory addressFactory;
     private final IdGenerator<UUID> idGenerator;
+    private final File socketDir;
 
     public TcpIncomingConnector(ExecutorFactory executorFactory, InetAddressFactory addressFactory, IdGenerator<UUID> idGenerator) {
+        this(executorFactory, addressFactory, idGenerator, null);
+    }
+
+    /**
+     * @param socketDir the directory in which to also accept local connections on a Unix domain socket, when the JVM supports them, or null to only accept TCP connections.
+     * The socket file is recorded in the address of the acceptor, and clients fall back to TCP when they cannot connect to it.
+     * Socket files left behind in the directory by processes which did not stop cleanly are deleted when a new socket is created.
+     */
+    public TcpIncomingConnector(ExecutorFactory executorFactory, InetAddressFactory addressFactory, IdGenerator<UUID> idGenerator, @Nullable File socketDir) {
         this.executorFactory = executorFactory;
         this.addressFactory = addressFactory;
         this.idGenerator = idGenerator;
+        this.socketDir = socketDir;
     }
 
     @Override
@@ -63,12 +86,18 @@ public ConnectionAcceptor accept(Action<ConnectCompletion> action, boolean allow
         }
 
         UUID id = idGenerator.generateId();
+        final LocalSocket localSocket = socketDir != null && !allowRemote ? bindLocalSocket(socketDir, id) : null;
+
         List<InetAddress> addresses = Collections.singletonList(addressFactory.getLocalBindingAddress());
-        final Address address = new MultiChoiceAddress(id, localPort, addresses);
+        final Address address = new MultiChoiceAddress(id, localPort, addresses, localSocket == null ? null : localSocket.socketFile);
         LOGGER.debug("Listening on {}.", address);
 
         final ManagedExecutor executor = executorFactory.create("Incoming " + (allowRemote ? "remote" : "local")+ " TCP Connector on port " + localPort);
         executor.execute(new Receiver(serverSocket, action, allowRemote));
+        if (localSocket != null) {
+            // Connections to the socket file can only come from the local machine, so there is no remote address to check
+            executor.execute(new Receiver(localSocket.serverSocket, action, true));
+        }
 
         return new ConnectionAcceptor() {
             @Override
@@ -78,7 +107,7 @@ public Address getAddress() {
 
             @Override
             public void requestStop() {
-                CompositeStoppable.stoppable(serverSocket).stop();
+                CompositeStoppable.stoppable(serverSocket, localSocket).stop();
             }
 
             @Override
@@ -89,6 +118,100 @@ public void stop() {
         };
     }
 
+    /**
+     * Binds a Unix domain socket in the given directory, or returns null when that is not possible.
+     *
+     * A lock on a lock file next to the socket file is held for as long as the socket accepts connections.
+     * The operating system releases the lock when the process dies, which is how socket files left behind are recognized.
+     */
+    @Nullable
+    private static LocalSocket bindLocalSocket(File socketDir, UUID id) {
+        UnixDomainSockets unixDomainSockets = UnixDomainSockets.current();
+        if (unixDomainSockets == null) {
+            return null;
+        }
+        File socketFile = new File(socketDir, id + SOCKET_FILE_SUFFIX);
+        File lockFile = new File(socketDir, id + LOCK_FILE_SUFFIX);
+        FileChannel lockChannel = null;
+        try {
+            GFileUtils.mkdirs(socketDir);
+            deleteStaleSockets(socketDir);
+            lockChannel = FileChannel.open(lockFile.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            lockChannel.lock();
+            if (!lockFile.exists()) {
+                throw new IOException("Lock file " + lockFile + " was deleted by another process before it could be locked.");
+            }
+            return new LocalSocket(unixDomainSockets.bind(socketFile), socketFile, lockFile, lockChannel);
+        } catch (Exception e) {
+            LOGGER.debug("Could not listen on a Unix domain socket, only listening on TCP.", e);
+            CompositeStoppable.stoppable(lockChannel).stop();
+            GFileUtils.deleteQuietly(socketFile);
+            GFileUtils.deleteQuietly(lockFile);
+            return null;
+        }
+    }
+
+    /**
+     * Deletes the socket files in the given directory whose lock file is not locked anymore.
+     */
+    private static void deleteStaleSockets(File socketDir) {
+        File[] lockFiles = socketDir.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(LOCK_FILE_SUFFIX);
+            }
+        });
+        if (lockFiles == null) {
+            return;
+        }
+        for (File lockFile : lockFiles) {
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(lockFile.toPath(), StandardOpenOption.WRITE);
+                FileLock lock = channel.tryLock();
+                if (lock == null) {
+                    // Used by another process
+                    continue;
+                }
+                // Delete the files before releasing the lock, so that a process which has just created the lock file notices
+                String name = lockFile.getName();
+                GFileUtils.deleteQuietly(new File(socketDir, name.substring(0, name.length() - LOCK_FILE_SUFFIX.length()) + SOCKET_FILE_SUFFIX));
+                GFileUtils.deleteQuietly(lockFile);
+            } catch (OverlappingFileLockException e) {
+                // Used by this process
+            } catch (IOException e) {
+                LOGGER.debug("Could not check whether socket lock file {} is in use.", lockFile, e);
+            } finally {
+                CompositeStoppable.stoppable(channel).stop();
+            }
+        }
+    }
+
+    private static class LocalSocket implements Closeable {
+        private final ServerSocketChannel serverSocket;
+        private final File socketFile;
+        private final File lockFile;
+        private final FileChannel lockChannel;
+
+        LocalSocket(ServerSocketChannel serverSocket, File socketFile, File lockFile, FileChannel lockChannel) {
+            this.serverSocket = serverSocket;
+            this.socketFile = socketFile;
+            this.lockFile = lockFile;
+            this.lockChannel = lockChannel;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                serverSocket.close();
+            } finally {
+                GFileUtils.deleteQuietly(socketFile);
+                GFileUtils.deleteQuietly(lockFile);
+                lockChannel.close();
+            }
+        }
+    }
+
     private class Receiver implements Runnable {
         private final ServerSocketChannel serverSocket;
         private final Action<ConnectCompletion> action;
@@ -106,14 +229,15 @@ public void run() {
                 try {
                     while (true) {
                         final SocketChannel socket = serverSocket.accept();
-                        InetSocketAddress remoteSocketAddress = (InetSocketAddress) socket.socket().getRemoteSocketAddress();
-                        InetAddress remoteInetAddress = remoteSocketAddress.getAddress();
-                        if (!allowRemote && !addressFactory.isCommunicationAddress(remoteInetAddress)) {
-                            LOGGER.error("Cannot accept connection from remote address {}.", remoteInetAddress);
-                            socket.close();
-                            continue;
+                        if (!allowRemote) {
+                            InetAddress remoteInetAddress = ((InetSocketAddress) socket.getRemoteAddress()).getAddress();
+                            if (!addressFactory.isCommunicationAddress(remoteInetAddress)) {
+                                LOGGER.error("Cannot accept connection from remote address {}.", remoteInetAddress);
+                                socket.close();
+                                continue;
+                            }
                         }
-                        LOGGER.debug("Accepted connection from {} to {}.", socket.socket().getRemoteSocketAddress(), socket.socket().getLocalSocketAddress());
+                        LOGGER.debug("Accepted connection from {} to {}.", socket.getRemoteAddress(), socket.getLocalAddress());
                         try {
                             action.execute(new SocketConnectCompletion(socket));
                         } catch (Throwable t) {
@@ -23,6 +23,8 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+import java.io.File;
 import java.io.IOException;
 import java.net.*;
 import java.nio.channels.SocketChannel;
@@ -40,6 +42,11 @@ public ConnectCompletion connect(Address destinationAddress) throws org.gradle.i
         InetEndpoint address = (InetEndpoint) destinationAddress;
         LOGGER.debug("Attempting to connect to {}.", address);
 
+        SocketChannel localSocketChannel = tryConnectToSocketFile(address);
+        if (localSocketChannel != null) {
+            return new SocketConnectCompletion(localSocketChannel);
+        }
+
         // Try each address in turn. Not all of them are necessarily reachable (eg when socket option IPV6_V6ONLY
         // is on - the default for debian and others), so we will try each of them until we can connect
         List<InetAddress> candidateAddresses = address.getCandidates();
@@ -74,6 +81,26 @@ public ConnectCompletion connect(Address destinationAddress) throws org.gradle.i
         }
     }
 
+    /**
+     * Connects to the Unix domain socket of the destination, when it has one and this JVM supports them. Returns null when TCP should be used instead.
+     */
+    @Nullable
+    private static SocketChannel tryConnectToSocketFile(InetEndpoint address) {
+        UnixDomainSockets unixDomainSockets = UnixDomainSockets.current();
+        File socketFile = address instanceof MultiChoiceAddress ? ((MultiChoiceAddress) address).getSocketFile() : null;
+        if (unixDomainSockets == null || socketFile == null) {
+            return null;
+        }
+        try {
+            SocketChannel socketChannel = unixDomainSockets.connect(socketFile);
+            LOGGER.debug("Connected to socket file {}.", socketFile);
+            return socketChannel;
+        } catch (Exception e) {
+            LOGGER.debug("Cannot connect to socket file {}, falling back to TCP.", socketFile, e);
+            return null;
+        }
+    }
+
     private SocketChannel tryConnect(InetEndpoint address, InetAddress candidate) throws IOException {
         SocketChannel socketChannel = SocketChannel.open();
 
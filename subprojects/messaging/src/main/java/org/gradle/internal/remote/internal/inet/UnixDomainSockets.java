@@ -0,0 +1,134 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.remote.internal.inet;
+
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.os.OperatingSystem;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+
+/**
+ * Opens Unix domain socket channels, which are available from Java 16 on.
+ *
+ * The processes which communicate may run on older Java versions, so the API is looked up reflectively,
+ * and callers fall back to TCP when it is not available.
+ */
+public class UnixDomainSockets {
+    private static final UnixDomainSockets INSTANCE = create();
+
+    private final ProtocolFamily unixFamily;
+    private final Method addressOf;
+    private final Method openServerSocketChannel;
+    private final Method openSocketChannel;
+
+    private UnixDomainSockets(ProtocolFamily unixFamily, Method addressOf, Method openServerSocketChannel, Method openSocketChannel) {
+        this.unixFamily = unixFamily;
+        this.addressOf = addressOf;
+        this.openServerSocketChannel = openServerSocketChannel;
+        this.openSocketChannel = openSocketChannel;
+    }
+
+    /**
+     * Returns the Unix domain sockets of the current JVM, or null when they are not supported.
+     * They are only used on Unix-like systems, where socket files can be removed while in use.
+     */
+    @Nullable
+    public static UnixDomainSockets current() {
+        return INSTANCE;
+    }
+
+    @Nullable
+    private static UnixDomainSockets create() {
+        if (OperatingSystem.current().isWindows()) {
+            return null;
+        }
+        try {
+            ProtocolFamily unixFamily = StandardProtocolFamily.valueOf("UNIX");
+            Method addressOf = Class.forName("java.net.UnixDomainSocketAddress").getMethod("of", Path.class);
+            Method openServerSocketChannel = ServerSocketChannel.class.getMethod("open", ProtocolFamily.class);
+            Method openSocketChannel = SocketChannel.class.getMethod("open", ProtocolFamily.class);
+            return new UnixDomainSockets(unixFamily, addressOf, openServerSocketChannel, openSocketChannel);
+        } catch (IllegalArgumentException e) {
+            return null;
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Opens a server channel which accepts connections on the given socket file.
+     */
+    public ServerSocketChannel bind(File socketFile) throws IOException {
+        ServerSocketChannel serverSocket = (ServerSocketChannel) invoke(openServerSocketChannel, unixFamily);
+        try {
+            serverSocket.bind(addressOf(socketFile));
+            return serverSocket;
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        } catch (RuntimeException e) {
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a channel connected to the given socket file.
+     */
+    public SocketChannel connect(File socketFile) throws IOException {
+        SocketChannel socketChannel = (SocketChannel) invoke(openSocketChannel, unixFamily);
+        try {
+            socketChannel.connect(addressOf(socketFile));
+            return socketChannel;
+        } catch (IOException e) {
+            socketChannel.close();
+            throw e;
+        } catch (RuntimeException e) {
+            socketChannel.close();
+            throw e;
+        }
+    }
+
+    private SocketAddress addressOf(File socketFile) throws IOException {
+        return (SocketAddress) invoke(addressOf, socketFile.toPath());
+    }
+
+    private static Object invoke(Method method, Object argument) throws IOException {
+        try {
+            return method.invoke(null, argument);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw UncheckedException.throwAsUncheckedException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+}
@@ -26,6 +26,7 @@ import org.gradle.internal.serialize.Encoder
 import org.gradle.internal.serialize.Serializer
 import org.gradle.internal.serialize.Serializers
 import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+import org.gradle.util.internal.GFileUtils
 import org.gradle.util.Requires
 import org.gradle.util.TestPrecondition
 import org.gradle.util.ports.ReleasingPortAllocator
@@ -35,6 +36,7 @@ import spock.lang.Shared
 import spock.lang.Timeout
 
 import java.nio.channels.SocketChannel
+import java.nio.file.Files
 
 @Timeout(60)
 class TcpConnectorTest extends ConcurrentSpec {
@@ -45,6 +47,12 @@ class TcpConnectorTest extends ConcurrentSpec {
     final def incomingConnector = new TcpIncomingConnector(executorFactory, addressFactory, idGenerator)
     @Rule
     public ReleasingPortAllocator portAllocator = new ReleasingPortAllocator()
+    // Not in the test directory, as the path of a socket file is limited to about 100 characters
+    final def socketDir = new File(Files.createTempDirectory("gradle-test-").toFile(), "sockets")
+
+    def cleanup() {
+        GFileUtils.deleteQuietly(socketDir.parentFile)
+    }
 
     def "client can connect to server"() {
         Action action = Mock()
@@ -76,6 +84,84 @@ class TcpConnectorTest extends ConcurrentSpec {
         connection?.stop()
     }
 
+    @Requires([TestPrecondition.JDK16_OR_LATER, TestPrecondition.NOT_WINDOWS])
+    def "client connects to server using Unix domain socket when server accepts them"() {
+        def incomingConnector = new TcpIncomingConnector(executorFactory, addressFactory, idGenerator, socketDir)
+
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), false)
+        def connection = outgoingConnector.connect(acceptor.address).create(serializer)
+
+        then:
+        acceptor.address.socketFile.exists()
+        connection.toString().contains(acceptor.address.socketFile.path)
+
+        when:
+        acceptor.stop()
+
+        then:
+        !acceptor.address.socketFile.exists()
+        socketDir.list().length == 0
+
+        cleanup:
+        acceptor?.stop()
+        connection?.stop()
+    }
+
+    @Requires([TestPrecondition.JDK16_OR_LATER, TestPrecondition.NOT_WINDOWS])
+    def "deletes socket files left behind by processes which did not stop cleanly"() {
+        def incomingConnector = new TcpIncomingConnector(executorFactory, addressFactory, idGenerator, socketDir)
+        socketDir.mkdirs()
+        def staleSocketFile = new File(socketDir, "stale.sock")
+        def staleLockFile = new File(socketDir, "stale.lock")
+        staleSocketFile.createNewFile()
+        staleLockFile.createNewFile()
+
+        when:
+        def acceptor1 = incomingConnector.accept(Mock(Action), false)
+        def acceptor2 = incomingConnector.accept(Mock(Action), false)
+
+        then:
+        !staleSocketFile.exists()
+        !staleLockFile.exists()
+        acceptor1.address.socketFile.exists()
+        acceptor2.address.socketFile.exists()
+
+        cleanup:
+        acceptor1?.stop()
+        acceptor2?.stop()
+    }
+
+    def "client falls back to TCP when it cannot connect to the socket file"() {
+        def incomingConnector = new TcpIncomingConnector(executorFactory, addressFactory, idGenerator, socketDir)
+
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), false)
+        MultiChoiceAddress address = acceptor.address
+        def addressWithMissingSocketFile = new MultiChoiceAddress(address.canonicalAddress, address.port, address.candidates, new File("missing-dir/socket"))
+        def connection = outgoingConnector.connect(addressWithMissingSocketFile).create(serializer)
+
+        then:
+        connection.toString().endsWith(":" + address.port)
+
+        cleanup:
+        acceptor?.stop()
+        connection?.stop()
+    }
+
+    def "does not accept Unix domain socket connections when remote connections are allowed"() {
+        def incomingConnector = new TcpIncomingConnector(executorFactory, addressFactory, idGenerator, socketDir)
+
+        when:
+        def acceptor = incomingConnector.accept(Mock(Action), true)
+
+        then:
+        acceptor.address.socketFile == null
+
+        cleanup:
+        acceptor?.stop()
+    }
+
     def "server executes action when incoming connection received"() {
         Action action = Mock()
 
@@ -1,6 +1,7 @@
 plugins {
     id("gradlebuild.distribution.api-java")
     id("gradlebuild.publish-public-libraries")
+    id("gradlebuild.jmh")
 }
 
 description = "API extraction for Java"
@@ -21,3 +22,17 @@ dependencies {
     testImplementation(project(":internal-testing"))
     testImplementation(testFixtures(project(":snapshots")))
 }
+
+/**
+ * Use Java 8 compatibility for JMH benchmarks
+ */
+tasks.named<JavaCompile>("jmhCompileGeneratedClasses") {
+    options.release.set(8)
+}
+
+jmh {
+    fork.set(1)
+    threads.set(1)
+    warmupIterations.set(5)
+    synchronizeIterations.set(false)
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import org.apache.commons.io.FileUtils;
+import org.gradle.internal.file.FileMetadata.AccessType;
+import org.gradle.internal.file.impl.DefaultFileMetadata;
+import org.gradle.internal.fingerprint.hashing.RegularFileSnapshotContext;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.snapshot.RegularFileSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Measures hashing the entries of jars for runtime classpath normalization, from a small library up to a fat jar with nested jars.
+ */
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class ZipHasherBenchmark {
+
+    private static final int ENTRY_SIZE = 4096;
+    private static final int NESTED_JAR_COUNT = 20;
+
+    @Param({"200", "5000", "20000"})
+    int entryCount;
+
+    @Param({"false", "true"})
+    boolean nestedJars;
+
+    private final ZipHasher zipHasher = new ZipHasher(new RuntimeClasspathResourceHasher());
+    private File tempDir;
+    private RegularFileSnapshotContext jar;
+
+    @Setup
+    public void setup() throws IOException {
+        tempDir = Files.createTempDirectory("zip-hasher").toFile();
+        File jarFile = new File(tempDir, "fat.jar");
+        Random random = new Random(1234L);
+        try (ZipOutputStream output = new ZipOutputStream(new FileOutputStream(jarFile))) {
+            if (nestedJars) {
+                int entriesPerJar = entryCount / NESTED_JAR_COUNT;
+                for (int i = 0; i < NESTED_JAR_COUNT; i++) {
+                    ByteArrayOutputStream nestedJar = new ByteArrayOutputStream();
+                    try (ZipOutputStream nestedOutput = new ZipOutputStream(nestedJar)) {
+                        writeEntries(nestedOutput, entriesPerJar, random);
+                    }
+                    output.putNextEntry(new ZipEntry("lib/nested" + i + ".jar"));
+                    nestedJar.writeTo(output);
+                }
+            } else {
+                writeEntries(output, entryCount, random);
+            }
+        }
+        jar = new DefaultRegularFileSnapshotContext(() -> new String[]{jarFile.getName()},
+            new RegularFileSnapshot(jarFile.getAbsolutePath(), jarFile.getName(), Hashing.hashFile(jarFile), DefaultFileMetadata.file(jarFile.lastModified(), jarFile.length(), AccessType.DIRECT)));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileUtils.forceDelete(tempDir);
+    }
+
+    @Benchmark
+    public HashCode hashJar() {
+        return zipHasher.hash(jar);
+    }
+
+    private static void writeEntries(ZipOutputStream output, int count, Random random) throws IOException {
+        byte[] content = new byte[ENTRY_SIZE];
+        for (int i = 0; i < count; i++) {
+            output.putNextEntry(new ZipEntry("org/example/package" + (i % 50) + "/Class" + i + ".class"));
+            writeContent(output, content, random);
+        }
+    }
+
+    /**
+     * Writes somewhat compressible content, like a class file.
+     */
+    private static void writeContent(OutputStream output, byte[] content, Random random) throws IOException {
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) ('a' + random.nextInt(16));
+        }
+        output.write(content);
+    }
+}
@@ -20,6 +20,7 @@
 import org.gradle.internal.fingerprint.hashing.RegularFileSnapshotContextHasher;
 import org.gradle.internal.fingerprint.hashing.RegularFileSnapshotContext;
 import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.io.IoSupplier;
 import org.gradle.internal.snapshot.FileSystemLocationSnapshot;
 
 import javax.annotation.Nullable;
@@ -31,4 +32,10 @@ public interface ResourceSnapshotterCacheService {
 
     @Nullable
     HashCode hashFile(RegularFileSnapshotContext fileSnapshotContext, RegularFileSnapshotContextHasher hasher, HashCode configurationHash) throws IOException;
+
+    /**
+     * Hashes an entry of the archive at the given path, using the given key which identifies the raw content of the entry.
+     */
+    @Nullable
+    HashCode hashZipEntry(String archivePath, HashCode entryKey, IoSupplier<HashCode> hasher, HashCode configurationHash) throws IOException;
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state;
+
+import org.gradle.internal.hash.Hasher;
+import org.gradle.internal.hash.Hashing;
+import org.gradle.internal.hash.HashCode;
+
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the central directory of a zip file, to identify the entries of the archive by their raw, still compressed content.
+ *
+ * The raw content of an entry can be hashed without inflating it, which makes it a cheap key for caching the result of hashing the entry.
+ * Entries are read with positional reads rather than by mapping the file into memory, as a mapped file cannot be deleted on Windows
+ * until the mapping has been garbage collected.
+ *
+ * Only the plain zip format is supported. For Zip64 archives, archives with a prefix and encrypted entries no key is returned.
+ */
+final class ZipCentralDirectory implements Closeable {
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_DIRECTORY_HEADER_SIZE = 46;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int ENCRYPTED_FLAG = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final HashCode ENTRY_KEY_SIGNATURE = Hashing.signature(ZipCentralDirectory.class);
+
+    private final FileChannel channel;
+    private final long archiveSize;
+    private final Map<String, Entry> entries;
+
+    private ZipCentralDirectory(FileChannel channel, long archiveSize, Map<String, Entry> entries) {
+        this.channel = channel;
+        this.archiveSize = archiveSize;
+        this.entries = entries;
+    }
+
+    /**
+     * Reads the central directory of the given archive, or returns null when the archive is not in a supported format.
+     */
+    @Nullable
+    static ZipCentralDirectory open(File zipFile) throws IOException {
+        FileChannel channel = FileChannel.open(zipFile.toPath(), StandardOpenOption.READ);
+        try {
+            Map<String, Entry> entries = readEntries(channel);
+            if (entries == null) {
+                channel.close();
+                return null;
+            }
+            return new ZipCentralDirectory(channel, channel.size(), entries);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a key identifying the name and the raw content of the given entry, or null when the entry cannot be identified.
+     */
+    @Nullable
+    HashCode entryKey(String name) throws IOException {
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            return null;
+        }
+        ByteBuffer localHeader = read(entry.localHeaderOffset, LOCAL_HEADER_SIZE);
+        if (localHeader == null || localHeader.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            return null;
+        }
+        long dataOffset = entry.localHeaderOffset + LOCAL_HEADER_SIZE + unsignedShort(localHeader, 26) + unsignedShort(localHeader, 28);
+        if (dataOffset + entry.compressedSize > archiveSize) {
+            return null;
+        }
+
+        Hasher hasher = Hashing.newHasher();
+        hasher.putHash(ENTRY_KEY_SIGNATURE);
+        hasher.putString(name);
+        hasher.putInt(entry.method);
+        hasher.putLong(entry.crc);
+        hasher.putLong(entry.size);
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, Math.max(entry.compressedSize, 1)));
+        long position = dataOffset;
+        long end = dataOffset + entry.compressedSize;
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return null;
+            }
+            hasher.putBytes(buffer.array(), 0, read);
+            position += read;
+        }
+        return hasher.hash();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Nullable
+    private static Map<String, Entry> readEntries(FileChannel channel) throws IOException {
+        long archiveSize = channel.size();
+        if (archiveSize < END_OF_CENTRAL_DIRECTORY_SIZE) {
+            return null;
+        }
+        int tailSize = (int) Math.min(archiveSize, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_SIZE);
+        ByteBuffer tail = readFully(channel, archiveSize - tailSize, tailSize);
+        if (tail == null) {
+            return null;
+        }
+        int endOfCentralDirectory = -1;
+        for (int offset = tailSize - END_OF_CENTRAL_DIRECTORY_SIZE; offset >= 0; offset--) {
+            if (tail.getInt(offset) == END_OF_CENTRAL_DIRECTORY_SIGNATURE
+                && offset + END_OF_CENTRAL_DIRECTORY_SIZE + unsignedShort(tail, offset + 20) == tailSize) {
+                endOfCentralDirectory = offset;
+                break;
+            }
+        }
+        if (endOfCentralDirectory < 0) {
+            return null;
+        }
+        int entryCount = unsignedShort(tail, endOfCentralDirectory + 10);
+        long centralDirectorySize = unsignedInt(tail, endOfCentralDirectory + 12);
+        long centralDirectoryOffset = unsignedInt(tail, endOfCentralDirectory + 16);
+        if (entryCount == 0xFFFF || centralDirectorySize >= Integer.MAX_VALUE || centralDirectoryOffset == 0xFFFFFFFFL) {
+            // Zip64
+            return null;
+        }
+        if (centralDirectoryOffset + centralDirectorySize != archiveSize - tailSize + endOfCentralDirectory) {
+            // Archives with data before the first entry, or with a Zip64 end of central directory record
+            return null;
+        }
+        ByteBuffer centralDirectory = readFully(channel, centralDirectoryOffset, (int) centralDirectorySize);
+        if (centralDirectory == null) {
+            return null;
+        }
+
+        Map<String, Entry> entries = new HashMap<>(entryCount * 2);
+        int offset = 0;
+        for (int i = 0; i < entryCount; i++) {
+            if (offset + CENTRAL_DIRECTORY_HEADER_SIZE > centralDirectorySize || centralDirectory.getInt(offset) != CENTRAL_DIRECTORY_HEADER_SIGNATURE) {
+                return null;
+            }
+            int flags = unsignedShort(centralDirectory, offset + 8);
+            int method = unsignedShort(centralDirectory, offset + 10);
+            long crc = unsignedInt(centralDirectory, offset + 16);
+            long compressedSize = unsignedInt(centralDirectory, offset + 20);
+            long size = unsignedInt(centralDirectory, offset + 24);
+            int nameLength = unsignedShort(centralDirectory, offset + 28);
+            int extraLength = unsignedShort(centralDirectory, offset + 30);
+            int commentLength = unsignedShort(centralDirectory, offset + 32);
+            long localHeaderOffset = unsignedInt(centralDirectory, offset + 42);
+            if (offset + CENTRAL_DIRECTORY_HEADER_SIZE + nameLength > centralDirectorySize) {
+                return null;
+            }
+            // ZipFile decodes all names as UTF-8 by default, so do the same to find the same entries
+            String name = new String(centralDirectory.array(), offset + CENTRAL_DIRECTORY_HEADER_SIZE, nameLength, StandardCharsets.UTF_8);
+            Entry entry = (flags & ENCRYPTED_FLAG) != 0 ? Entry.UNKNOWN : new Entry(method, crc, compressedSize, size, localHeaderOffset);
+            if (entries.put(name, entry) != null) {
+                // Don't guess which of the entries with the same name is meant
+                entries.put(name, Entry.UNKNOWN);
+            }
+            offset += CENTRAL_DIRECTORY_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        entries.values().removeIf(entry -> entry == Entry.UNKNOWN);
+        return entries;
+    }
+
+    @Nullable
+    private ByteBuffer read(long position, int length) throws IOException {
+        if (position + length > archiveSize) {
+            return null;
+        }
+        return readFully(channel, position, length);
+    }
+
+    @Nullable
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return null;
+            }
+        }
+        return buffer;
+    }
+
+    private static int unsignedShort(ByteBuffer buffer, int offset) {
+        return buffer.getShort(offset) & 0xFFFF;
+    }
+
+    private static long unsignedInt(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset) & 0xFFFFFFFFL;
+    }
+
+    private static class Entry {
+        static final Entry UNKNOWN = new Entry(-1, -1, -1, -1, -1);
+
+        final int method;
+        final long crc;
+        final long compressedSize;
+        final long size;
+        final long localHeaderOffset;
+
+        Entry(int method, long crc, long compressedSize, long size, long localHeaderOffset) {
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+}
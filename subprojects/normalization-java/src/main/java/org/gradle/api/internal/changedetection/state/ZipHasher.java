@@ -57,18 +57,37 @@ public static boolean isZipFile(final String name) {
     }
 
     private final ResourceHasher resourceHasher;
+    private final ResourceSnapshotterCacheService cacheService;
+    private final HashCode resourceHasherConfigurationHash;
     private final HashingExceptionReporter hashingExceptionReporter;
 
     public ZipHasher(ResourceHasher resourceHasher) {
+        this(resourceHasher, (ResourceSnapshotterCacheService) null);
+    }
+
+    public ZipHasher(ResourceHasher resourceHasher, HashingExceptionReporter hashingExceptionReporter) {
+        this(resourceHasher, null, hashingExceptionReporter);
+    }
+
+    public ZipHasher(ResourceHasher resourceHasher, @Nullable ResourceSnapshotterCacheService cacheService) {
         this(
             resourceHasher,
+            cacheService,
             (s, e) -> LOGGER.debug("Malformed archive '{}'. Falling back to full content hash instead of entry hashing.", s.getName(), e)
         );
     }
 
-    public ZipHasher(ResourceHasher resourceHasher, HashingExceptionReporter hashingExceptionReporter) {
+    /**
+     * When a cache service is given, the hashes of the entries of an archive are cached by the raw content of the entries,
+     * so entries which did not change are not hashed again when the archive changes.
+     */
+    public ZipHasher(ResourceHasher resourceHasher, @Nullable ResourceSnapshotterCacheService cacheService, HashingExceptionReporter hashingExceptionReporter) {
         this.resourceHasher = resourceHasher;
+        this.cacheService = cacheService;
         this.hashingExceptionReporter = hashingExceptionReporter;
+        Hasher hasher = Hashing.newHasher();
+        resourceHasher.appendConfigurationToHasher(hasher);
+        this.resourceHasherConfigurationHash = hasher.hash();
     }
 
     @Nullable
@@ -100,14 +119,33 @@ private HashCode hashZipContents(RegularFileSnapshot zipFileSnapshot) {
     }
 
     private List<FileSystemLocationFingerprint> fingerprintZipEntries(String zipFile) throws IOException {
-        try (ZipInput input = FileZipInput.create(new File(zipFile))) {
+        try (ZipInput input = FileZipInput.create(new File(zipFile)); ZipCentralDirectory centralDirectory = openCentralDirectory(zipFile)) {
             List<FileSystemLocationFingerprint> fingerprints = Lists.newArrayList();
-            fingerprintZipEntries("", zipFile, fingerprints, input);
+            fingerprintZipEntries("", zipFile, fingerprints, input, centralDirectory);
             return fingerprints;
         }
     }
 
-    private void fingerprintZipEntries(String parentName, String rootParentName, List<FileSystemLocationFingerprint> fingerprints, ZipInput input) throws IOException {
+    @Nullable
+    private ZipCentralDirectory openCentralDirectory(String zipFile) {
+        if (cacheService == null) {
+            return null;
+        }
+        try {
+            return ZipCentralDirectory.open(new File(zipFile));
+        } catch (IOException e) {
+            // Hash the entries without the cache, and leave reporting malformed archives to the zip input
+            return null;
+        }
+    }
+
+    private void fingerprintZipEntries(
+        String parentName,
+        String rootParentName,
+        List<FileSystemLocationFingerprint> fingerprints,
+        ZipInput input,
+        @Nullable ZipCentralDirectory centralDirectory
+    ) throws IOException {
         fingerprints.add(newZipMarker(parentName));
         for (ZipEntry zipEntry : input) {
             if (zipEntry.isDirectory()) {
@@ -117,22 +155,31 @@ private void fingerprintZipEntries(String parentName, String rootParentName, Lis
             ZipEntryContext zipEntryContext = new DefaultZipEntryContext(zipEntry, fullName, rootParentName);
             if (isZipFile(zipEntry.getName())) {
                 zipEntryContext.getEntry().withInputStream(inputStream -> {
-                    fingerprintZipEntries(fullName, rootParentName, fingerprints, new StreamZipInput(inputStream));
+                    fingerprintZipEntries(fullName, rootParentName, fingerprints, new StreamZipInput(inputStream), null);
                     return null;
                 });
             } else {
-                fingerprintZipEntry(zipEntryContext, fingerprints);
+                fingerprintZipEntry(zipEntryContext, fingerprints, centralDirectory);
             }
         }
     }
 
-    private void fingerprintZipEntry(ZipEntryContext zipEntryContext, List<FileSystemLocationFingerprint> fingerprints) throws IOException {
-        HashCode hash = resourceHasher.hash(zipEntryContext);
+    private void fingerprintZipEntry(ZipEntryContext zipEntryContext, List<FileSystemLocationFingerprint> fingerprints, @Nullable ZipCentralDirectory centralDirectory) throws IOException {
+        HashCode hash = hashZipEntry(zipEntryContext, centralDirectory);
         if (hash != null) {
             fingerprints.add(new DefaultFileSystemLocationFingerprint(zipEntryContext.getFullName(), FileType.RegularFile, hash));
         }
     }
 
+    @Nullable
+    private HashCode hashZipEntry(ZipEntryContext zipEntryContext, @Nullable ZipCentralDirectory centralDirectory) throws IOException {
+        HashCode entryKey = centralDirectory == null ? null : centralDirectory.entryKey(zipEntryContext.getEntry().getName());
+        if (entryKey == null) {
+            return resourceHasher.hash(zipEntryContext);
+        }
+        return cacheService.hashZipEntry(zipEntryContext.getRootParentName(), entryKey, () -> resourceHasher.hash(zipEntryContext), resourceHasherConfigurationHash);
+    }
+
     private DefaultFileSystemLocationFingerprint newZipMarker(String relativePath) {
         return new DefaultFileSystemLocationFingerprint(relativePath, FileType.RegularFile, EMPTY_HASH_MARKER);
     }
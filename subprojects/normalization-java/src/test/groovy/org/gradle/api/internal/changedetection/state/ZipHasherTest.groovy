@@ -21,7 +21,9 @@ import org.gradle.internal.file.FileMetadata.AccessType
 import org.gradle.internal.file.impl.DefaultFileMetadata
 import org.gradle.internal.fingerprint.hashing.RegularFileSnapshotContext
 import org.gradle.internal.fingerprint.hashing.ResourceHasher
+import org.gradle.internal.hash.HashCode
 import org.gradle.internal.hash.TestHashCodes
+import org.gradle.internal.io.IoSupplier
 import org.gradle.internal.snapshot.RegularFileSnapshot
 import org.gradle.test.fixtures.file.TestFile
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
@@ -148,6 +150,82 @@ class ZipHasherTest extends Specification {
         hash1 == hash2
     }
 
+    def "large archives are hashed independently of entry order"() {
+        given:
+        def innerContent = tmpDir.createDir("inner")
+        innerContent.file("foo") << "Foo"
+        def inner = tmpDir.file("inner.jar")
+        innerContent.zipTo(inner)
+        def entries = (0..<1500).collectEntries { ["file${it}.txt".toString(), "content ${it}".bytes] }
+        entries["inner.jar"] = inner.bytes
+
+        def jarfile = tmpDir.file("test.jar")
+        createJarWithEntries(jarfile, entries)
+        def reversed = tmpDir.file("reversed.jar")
+        createJarWithEntries(reversed, entries.entrySet().toList().reverse().collectEntries { [it.key, it.value] })
+        def changed = tmpDir.file("changed.jar")
+        createJarWithEntries(changed, entries + ["file1000.txt": "changed".bytes])
+
+        def innerChangedContent = tmpDir.createDir("innerChanged")
+        innerChangedContent.file("foo") << "Bar"
+        def innerChanged = tmpDir.file("innerChanged.jar")
+        innerChangedContent.zipTo(innerChanged)
+        def changedNested = tmpDir.file("changedNested.jar")
+        createJarWithEntries(changedNested, entries + ["inner.jar": innerChanged.bytes])
+
+        expect:
+        def hash = zipHasher.hash(snapshotContext(jarfile))
+        hash == zipHasher.hash(snapshotContext(reversed))
+        hash != zipHasher.hash(snapshotContext(changed))
+        hash != zipHasher.hash(snapshotContext(changedNested))
+    }
+
+    def "unchanged entries of a changed archive are not hashed again"() {
+        given:
+        def cachedHashes = [:]
+        def hashedEntries = 0
+        def cacheService = Stub(ResourceSnapshotterCacheService) {
+            hashZipEntry(_, _, _, _) >> { String archivePath, HashCode entryKey, IoSupplier<HashCode> hasher, HashCode configurationHash ->
+                def key = [entryKey, configurationHash]
+                if (!cachedHashes.containsKey(key)) {
+                    hashedEntries++
+                    cachedHashes[key] = hasher.get()
+                }
+                return cachedHashes[key]
+            }
+        }
+        def cachingZipHasher = new ZipHasher(resourceHasher(ResourceEntryFilter.FILTER_NOTHING, ResourceEntryFilter.FILTER_NOTHING), cacheService)
+
+        def entries = (0..<10).collectEntries { ["file${it}.txt".toString(), "content ${it}".bytes] }
+        def jarfile = tmpDir.file("test.jar")
+        createJarWithEntries(jarfile, entries)
+        def changed = tmpDir.file("changed.jar")
+        createJarWithEntries(changed, entries + ["file5.txt": "changed".bytes])
+
+        when:
+        def hash = cachingZipHasher.hash(snapshotContext(jarfile))
+        then:
+        hash == zipHasher.hash(snapshotContext(jarfile))
+        hashedEntries == 10
+
+        when:
+        hashedEntries = 0
+        def changedHash = cachingZipHasher.hash(snapshotContext(changed))
+        then:
+        changedHash == zipHasher.hash(snapshotContext(changed))
+        changedHash != hash
+        hashedEntries == 1
+    }
+
+    def createJarWithEntries(TestFile jarfile, Map<String, byte[]> entries) {
+        def jarOutput = new JarOutputStream(jarfile.newOutputStream())
+        entries.each { name, content ->
+            jarOutput.putNextEntry(new JarEntry(name))
+            jarOutput.write(content)
+        }
+        jarOutput.close()
+    }
+
     def createJarWithAttributes(TestFile jarfile, Map<String, String> attributes) {
         def manifest = new Manifest()
         def mainAttributes = manifest.getMainAttributes()
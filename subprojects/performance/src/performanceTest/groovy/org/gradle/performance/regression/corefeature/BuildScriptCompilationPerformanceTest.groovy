@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.performance.regression.corefeature
+
+import org.gradle.performance.AbstractCrossVersionPerformanceTest
+import org.gradle.performance.annotations.RunFor
+import org.gradle.performance.annotations.Scenario
+import org.gradle.profiler.mutations.AbstractCleanupMutator
+
+import static org.gradle.performance.annotations.ScenarioType.PER_DAY
+import static org.gradle.performance.results.OperatingSystem.LINUX
+
+@RunFor(
+    @Scenario(type = PER_DAY, operatingSystems = [LINUX], testProjects = ["largeJavaMultiProject"])
+)
+class BuildScriptCompilationPerformanceTest extends AbstractCrossVersionPerformanceTest {
+
+    def "configure with cold script caches"() {
+        given:
+        runner.tasksToRun = ['help']
+        runner.useDaemon = false
+        runner.addBuildMutator { invocationSettings ->
+            new ClearScriptCachesMutator(invocationSettings.gradleUserHome, AbstractCleanupMutator.CleanupSchedule.BUILD)
+        }
+
+        when:
+        def result = runner.run()
+
+        then:
+        result.assertCurrentVersionHasNotRegressed()
+    }
+
+    /**
+     * Removes the compiled build scripts from the Gradle user home, but keeps the rest of it,
+     * so that only the compilation of the build scripts is measured.
+     */
+    private static class ClearScriptCachesMutator extends AbstractCleanupMutator {
+        private final File gradleUserHome
+
+        ClearScriptCachesMutator(File gradleUserHome, AbstractCleanupMutator.CleanupSchedule schedule) {
+            super(schedule)
+            this.gradleUserHome = gradleUserHome
+        }
+
+        @Override
+        protected void cleanup() {
+            def caches = new File(gradleUserHome, "caches")
+            if (!caches.directory) {
+                return
+            }
+            caches.eachDir { versionedCaches ->
+                versionedCaches.eachDirMatch(~/scripts.*/) { it.deleteDir() }
+            }
+        }
+
+        @Override
+        String toString() {
+            return "${getClass().simpleName}(${gradleUserHome})"
+        }
+    }
+}
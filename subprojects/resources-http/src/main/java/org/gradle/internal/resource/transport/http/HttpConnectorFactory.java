@@ -40,6 +40,7 @@ public class HttpConnectorFactory implements ResourceConnectorFactory {
 
     private final SslContextFactory sslContextFactory;
     private final HttpClientHelper.Factory httpClientHelperFactory;
+    private final HttpDirectoryListingCache directoryListingCache = new HttpDirectoryListingCache();
 
     public HttpConnectorFactory(SslContextFactory sslContextFactory, HttpClientHelper.Factory httpClientHelperFactory) {
         this.sslContextFactory = sslContextFactory;
@@ -65,7 +66,7 @@ public ExternalResourceConnector createResourceConnector(ResourceConnectorSpecif
             .build()
         );
         HttpResourceAccessor accessor = new HttpResourceAccessor(http);
-        HttpResourceLister lister = new HttpResourceLister(accessor);
+        HttpResourceLister lister = new HttpResourceLister(accessor, directoryListingCache);
         HttpResourceUploader uploader = new HttpResourceUploader(http);
         return new DefaultExternalResourceConnector(accessor, lister, uploader);
     }
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resource.transport.http;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nullable;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Remembers the directory listings fetched from HTTP repositories together with the validators sent by the server,
+ * so that a listing can be revalidated with a conditional request instead of being downloaded and parsed again.
+ */
+public class HttpDirectoryListingCache {
+    private static final int MAX_ENTRIES = 10000;
+
+    private final Cache<URI, Entry> entries = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).build();
+
+    @Nullable
+    Entry get(URI directory) {
+        return entries.getIfPresent(directory);
+    }
+
+    void store(URI directory, @Nullable String etag, @Nullable String lastModified, List<String> names) {
+        if (etag == null && lastModified == null) {
+            // Nothing to revalidate against
+            entries.invalidate(directory);
+            return;
+        }
+        entries.put(directory, new Entry(etag, lastModified, ImmutableList.copyOf(names)));
+    }
+
+    void remove(URI directory) {
+        entries.invalidate(directory);
+    }
+
+    static class Entry {
+        private final String etag;
+        private final String lastModified;
+        private final List<String> names;
+
+        private Entry(@Nullable String etag, @Nullable String lastModified, List<String> names) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.names = names;
+        }
+
+        @Nullable
+        String getEtag() {
+            return etag;
+        }
+
+        @Nullable
+        String getLastModified() {
+            return lastModified;
+        }
+
+        List<String> getNames() {
+            return names;
+        }
+    }
+}
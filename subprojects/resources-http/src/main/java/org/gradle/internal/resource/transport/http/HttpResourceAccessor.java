@@ -50,6 +50,23 @@ public HttpResponseResource openResource(final ExternalResourceName location, bo
         return null;
     }
 
+    /**
+     * Same as #openResource except that the server is asked to only send the content when it no longer matches
+     * the given entity tag or last modified date. Check {@link HttpResponseResource#isNotModified()} on the result.
+     */
+    @Nullable
+    public HttpResponseResource openResourceIfModified(final ExternalResourceName location, @Nullable String etag, @Nullable String lastModified) {
+        String uri = location.getUri().toString();
+        LOGGER.debug("Constructing external resource with conditional request: {}", location);
+
+        HttpClientResponse response = http.performConditionalGet(uri, etag, lastModified);
+        if (response != null) {
+            return wrapResponse(location.getUri(), response);
+        }
+
+        return null;
+    }
+
     /**
      * Same as #getResource except that it always gives access to the response body,
      * irrespective of the returned HTTP status code. Never returns {@code null}.
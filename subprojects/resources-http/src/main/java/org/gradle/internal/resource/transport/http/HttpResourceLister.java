@@ -16,29 +16,89 @@
 
 package org.gradle.internal.resource.transport.http;
 
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.utils.DateUtils;
 import org.gradle.api.resources.ResourceException;
 import org.gradle.internal.resource.ExternalResourceName;
+import org.gradle.internal.resource.ResourceExceptions;
+import org.gradle.internal.resource.metadata.ExternalResourceMetaData;
 import org.gradle.internal.resource.transfer.ExternalResourceLister;
 
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Date;
 import java.util.List;
 
 public class HttpResourceLister implements ExternalResourceLister {
     private final HttpResourceAccessor accessor;
+    private final HttpDirectoryListingCache listingCache;
 
     public HttpResourceLister(HttpResourceAccessor accessor) {
+        this(accessor, new HttpDirectoryListingCache());
+    }
+
+    public HttpResourceLister(HttpResourceAccessor accessor, HttpDirectoryListingCache listingCache) {
         this.accessor = accessor;
+        this.listingCache = listingCache;
     }
 
     @Override
     public List<String> list(final ExternalResourceName directory) {
+        HttpDirectoryListingCache.Entry cached = listingCache.get(directory.getUri());
+        if (cached != null) {
+            return revalidate(directory, cached);
+        }
         return accessor.withContent(directory, true, (inputStream, metaData) -> {
-            String contentType = metaData.getContentType();
-            ApacheDirectoryListingParser directoryListingParser = new ApacheDirectoryListingParser();
-            try {
-                return directoryListingParser.parse(directory.getUri(), inputStream, contentType);
-            } catch (Exception e) {
-                throw new ResourceException(directory.getUri(), String.format("Unable to parse HTTP directory listing for '%s'.", directory.getUri()), e);
-            }
+            List<String> names = parse(directory, inputStream, metaData.getContentType());
+            listingCache.store(directory.getUri(), metaData.getEtag(), formatLastModified(metaData), names);
+            return names;
         });
     }
+
+    @Nullable
+    private List<String> revalidate(ExternalResourceName directory, HttpDirectoryListingCache.Entry cached) {
+        URI uri = directory.getUri();
+        HttpResponseResource response = accessor.openResourceIfModified(directory, cached.getEtag(), cached.getLastModified());
+        if (response == null) {
+            listingCache.remove(uri);
+            return null;
+        }
+        try {
+            if (response.isNotModified()) {
+                return cached.getNames();
+            }
+            List<String> names;
+            try (InputStream inputStream = response.openStream()) {
+                names = parse(directory, inputStream, response.getContentType());
+            }
+            listingCache.store(uri, response.getHeaderValue(HttpHeaders.ETAG), response.getHeaderValue(HttpHeaders.LAST_MODIFIED), names);
+            return names;
+        } catch (IOException e) {
+            listingCache.remove(uri);
+            throw ResourceExceptions.getFailed(uri, e);
+        } finally {
+            response.close();
+        }
+    }
+
+    private static List<String> parse(ExternalResourceName directory, InputStream inputStream, @Nullable String contentType) {
+        ApacheDirectoryListingParser directoryListingParser = new ApacheDirectoryListingParser();
+        try {
+            return directoryListingParser.parse(directory.getUri(), inputStream, contentType);
+        } catch (Exception e) {
+            throw new ResourceException(directory.getUri(), String.format("Unable to parse HTTP directory listing for '%s'.", directory.getUri()), e);
+        }
+    }
+
+    @Nullable
+    private static String formatLastModified(ExternalResourceMetaData metaData) {
+        // A missing Last-Modified header is reported as the epoch
+        Date lastModified = metaData.getLastModified();
+        if (lastModified == null || lastModified.getTime() == 0) {
+            return null;
+        }
+        return DateUtils.formatDate(lastModified);
+    }
 }
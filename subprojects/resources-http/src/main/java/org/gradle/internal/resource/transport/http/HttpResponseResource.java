@@ -65,6 +65,13 @@ public int getStatusCode() {
         return response.getStatusLine().getStatusCode();
     }
 
+    /**
+     * Returns true when the server answered a conditional request with a 304 (not modified) response, in which case there is no content.
+     */
+    public boolean isNotModified() {
+        return response.wasNotModified();
+    }
+
     public Date getLastModified() {
         String responseHeader = response.getHeader(HttpHeaders.LAST_MODIFIED);
         if (responseHeader == null) {
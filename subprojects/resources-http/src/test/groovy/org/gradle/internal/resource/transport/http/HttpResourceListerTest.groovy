@@ -39,6 +39,61 @@ class HttpResourceListerTest extends Specification {
         _ * metaData.getContentType() >> "text/html"
     }
 
+    def "revalidates previous listing with conditional request"() {
+        setup:
+        def name = new ExternalResourceName("http://testrepo/")
+        def notModified = Mock(HttpResponseResource)
+        _ * metaData.getContentType() >> "text/html"
+        _ * metaData.getEtag() >> "abc"
+
+        when:
+        def first = lister.list(name)
+
+        then:
+        1 * accessorMock.withContent(name, true, _) >> { uri, revalidate, action ->
+            return action.execute(new ByteArrayInputStream("<a href='child'/>".bytes), metaData)
+        }
+        first == ["child"]
+
+        when:
+        def second = lister.list(name)
+
+        then:
+        1 * accessorMock.openResourceIfModified(name, "abc", null) >> notModified
+        1 * notModified.isNotModified() >> true
+        1 * notModified.close()
+        0 * notModified.openStream()
+        0 * accessorMock.withContent(_, _, _)
+        second == ["child"]
+    }
+
+    def "parses listing again when it was modified"() {
+        setup:
+        def name = new ExternalResourceName("http://testrepo/")
+        def modified = Mock(HttpResponseResource)
+        _ * metaData.getContentType() >> "text/html"
+        _ * metaData.getEtag() >> "abc"
+
+        when:
+        lister.list(name)
+
+        then:
+        1 * accessorMock.withContent(name, true, _) >> { uri, revalidate, action ->
+            return action.execute(new ByteArrayInputStream("<a href='child'/>".bytes), metaData)
+        }
+
+        when:
+        def result = lister.list(name)
+
+        then:
+        1 * accessorMock.openResourceIfModified(name, "abc", null) >> modified
+        _ * modified.isNotModified() >> false
+        _ * modified.getContentType() >> "text/html"
+        1 * modified.openStream() >> new ByteArrayInputStream("<a href='other'/>".bytes)
+        1 * modified.close()
+        result == ["other"]
+    }
+
     def "list returns null if HttpAccessor returns null"(){
         setup:
         accessorMock.openResource(new ExternalResourceName("http://testrepo/"), true)  >> null
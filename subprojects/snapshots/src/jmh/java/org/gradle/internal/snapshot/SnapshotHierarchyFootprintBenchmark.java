@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.snapshot;
+
+import org.gradle.internal.file.FileMetadata.AccessType;
+import org.gradle.internal.file.impl.DefaultFileMetadata;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.vfs.impl.DefaultSnapshotHierarchy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the snapshot hierarchy for a generated tree of files, as the virtual file system retains it.
+ *
+ * Run with {@code -prof gc}. Almost everything allocated is retained by the hierarchy, so {@code gc.alloc.rate.norm} approximates its heap footprint.
+ */
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@BenchmarkMode(Mode.SingleShotTime)
+@State(Scope.Benchmark)
+public class SnapshotHierarchyFootprintBenchmark {
+
+    private static final String ROOT = "/home/user/projects/monorepo";
+    private static final int FILES_PER_DIRECTORY = 100;
+    private static final int DIRECTORIES_PER_DIRECTORY = 100;
+
+    @Param({"100000", "2000000"})
+    int fileCount;
+
+    @Benchmark
+    public SnapshotHierarchy storeTree() {
+        int directoryCount = fileCount / FILES_PER_DIRECTORY;
+        List<FileSystemLocationSnapshot> modules = new ArrayList<>();
+        int fileIndex = 0;
+        for (int module = 0; module * DIRECTORIES_PER_DIRECTORY < directoryCount; module++) {
+            String modulePath = ROOT + "/module" + module;
+            List<FileSystemLocationSnapshot> packages = new ArrayList<>();
+            for (int pkg = 0; pkg < DIRECTORIES_PER_DIRECTORY && module * DIRECTORIES_PER_DIRECTORY + pkg < directoryCount; pkg++) {
+                String packageName = "package" + pkg;
+                String packagePath = modulePath + "/" + packageName;
+                List<FileSystemLocationSnapshot> files = new ArrayList<>();
+                for (int file = 0; file < FILES_PER_DIRECTORY; file++) {
+                    String fileName = "Source" + file + ".java";
+                    files.add(new RegularFileSnapshot(packagePath + "/" + fileName, fileName, hash(fileIndex++), DefaultFileMetadata.file(1_600_000_000_000L + file, 1024 + file, AccessType.DIRECT)));
+                }
+                packages.add(new DirectorySnapshot(packagePath, packageName, AccessType.DIRECT, hash(fileIndex++), files));
+            }
+            modules.add(new DirectorySnapshot(modulePath, "module" + module, AccessType.DIRECT, hash(fileIndex++), packages));
+        }
+        DirectorySnapshot root = new DirectorySnapshot(ROOT, "monorepo", AccessType.DIRECT, hash(fileIndex), modules);
+        return DefaultSnapshotHierarchy.empty(CaseSensitivity.CASE_SENSITIVE).store(ROOT, root, SnapshotHierarchy.NodeDiffListener.NOOP);
+    }
+
+    private static HashCode hash(int index) {
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 4; i++) {
+            bytes[i] = (byte) (index >>> (i * 8));
+        }
+        return HashCode.fromBytes(bytes);
+    }
+}
@@ -22,9 +22,9 @@
 import org.gradle.internal.file.FileType;
 import org.gradle.internal.hash.HashCode;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 import static org.gradle.internal.snapshot.ChildMapFactory.childMapFromSorted;
 import static org.gradle.internal.snapshot.SnapshotVisitResult.CONTINUE;
@@ -39,9 +39,7 @@ public class DirectorySnapshot extends AbstractFileSystemLocationSnapshot {
     private final HashCode contentHash;
 
     public DirectorySnapshot(String absolutePath, String name, AccessType accessType, HashCode contentHash, List<FileSystemLocationSnapshot> children) {
-        this(absolutePath, name, accessType, contentHash, childMapFromSorted(children.stream()
-            .map(it -> new ChildMap.Entry<>(it.getName(), it))
-            .collect(Collectors.toList())));
+        this(absolutePath, name, accessType, contentHash, childMapOf(children));
     }
 
     public DirectorySnapshot(String absolutePath, String name, AccessType accessType, HashCode contentHash, ChildMap<FileSystemLocationSnapshot> children) {
@@ -50,6 +48,15 @@ public DirectorySnapshot(String absolutePath, String name, AccessType accessType
         this.children = children;
     }
 
+    private static ChildMap<FileSystemLocationSnapshot> childMapOf(List<FileSystemLocationSnapshot> children) {
+        // Sized exactly, since the list is retained by the child map
+        List<ChildMap.Entry<FileSystemLocationSnapshot>> entries = new ArrayList<>(children.size());
+        for (FileSystemLocationSnapshot child : children) {
+            entries.add(new ChildMap.Entry<>(child.getName(), child));
+        }
+        return childMapFromSorted(entries);
+    }
+
     @Override
     public HashCode getHash() {
         return contentHash;
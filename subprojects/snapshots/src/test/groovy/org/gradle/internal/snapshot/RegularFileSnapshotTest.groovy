@@ -25,4 +25,17 @@ class RegularFileSnapshotTest extends AbstractFileSystemLeafSnapshotTest {
     protected RegularFileSnapshot createInitialRootNode(String absolutePath) {
         return new RegularFileSnapshot(absolutePath, PathUtil.getFileName(absolutePath), TestHashCodes.hashCodeFrom(1235), DefaultFileMetadata.file(1, 2, AccessType.DIRECT))
     }
+
+    def "retains metadata"() {
+        def snapshot = new RegularFileSnapshot("/some/file.txt", "file.txt", TestHashCodes.hashCodeFrom(1235), DefaultFileMetadata.file(1, 2, AccessType.VIA_SYMLINK))
+        def sameSnapshot = new RegularFileSnapshot("/some/file.txt", "file.txt", TestHashCodes.hashCodeFrom(1235), DefaultFileMetadata.file(1, 2, AccessType.VIA_SYMLINK))
+        def modifiedSnapshot = new RegularFileSnapshot("/some/file.txt", "file.txt", TestHashCodes.hashCodeFrom(1235), DefaultFileMetadata.file(3, 2, AccessType.VIA_SYMLINK))
+
+        expect:
+        snapshot.metadata == DefaultFileMetadata.file(1, 2, AccessType.VIA_SYMLINK)
+        snapshot.accessType == AccessType.VIA_SYMLINK
+        snapshot.isContentAndMetadataUpToDate(sameSnapshot)
+        !snapshot.isContentAndMetadataUpToDate(modifiedSnapshot)
+        snapshot.isContentUpToDate(modifiedSnapshot)
+    }
 }